@@ -23,4 +23,28 @@ import java.lang.annotation.Target;
 
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.CLASS)
-public @interface JacksonProcessor {}
+public @interface JacksonProcessor {
+
+    /**
+     * Writes pre-encoded property names, including the preceding separator, as raw bytes when serializing
+     * using a default {@code UTF8JsonGenerator} without a pretty printer or custom escaping. Other generators
+     * fall back to writing each property name.
+     */
+    boolean rawFieldNames() default false;
+
+    /**
+     * Generates a static {@code writeTo(T, Utf8Sink)} method which writes JSON directly as UTF-8 bytes, used instead
+     * of the generator when serializing using a default {@code UTF8JsonGenerator} without a pretty printer, custom
+     * escaping, or features which change how values are written. Every property must be a string, number, boolean,
+     * enum, collection of those, or a final type which also enables the sink. Nested types which enable the sink are
+     * written by their {@code writeTo} method rather than by serializers registered with the mapper.
+     *
+     * <p>A static {@code estimateSize(T)} method bounds the written length using field names and value lengths, it
+     * sizes the sink buffer so large values aren't copied as the buffer grows. {@code toByteArray(T)} writes a value
+     * without a generator into a sink sized this way.
+     *
+     * <p>Generated serializers reference {@link net.ckozak.jackson.runtime.Utf8Sink}, so this artifact must be
+     * available at runtime.
+     */
+    boolean utf8Sink() default false;
+}
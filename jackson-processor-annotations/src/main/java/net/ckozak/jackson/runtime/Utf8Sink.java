@@ -0,0 +1,385 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.runtime;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.io.NumberOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+/**
+ * Growable buffer of UTF-8 encoded JSON, written by the {@code writeTo} methods of serializers generated for types
+ * which enable {@link JacksonProcessor#utf8Sink()}. Separators between values are written by the sink, so callers
+ * only describe structure and values.
+ *
+ * <p>The sink is a {@link SerializableString} holding the unquoted output, allowing generators to copy the written
+ * bytes as a raw value.
+ */
+public final class Utf8Sink implements SerializableString {
+    private static final int INITIAL_CAPACITY = 256;
+    // Longest number written by NumberOutput, Long.MIN_VALUE
+    private static final int MAX_NUMBER_LENGTH = 20;
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] HEX = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'
+    };
+
+    private byte[] buffer;
+    private int count;
+
+    public Utf8Sink() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /** Creates a sink able to hold {@code expectedSize} bytes before growing, usually a generated size estimate. */
+    public Utf8Sink(int expectedSize) {
+        buffer = new byte[expectedSize > 0 ? expectedSize : INITIAL_CAPACITY];
+    }
+
+    /**
+     * Estimates the length of a string written by {@link #writeString(String)}, exact for strings which don't require
+     * encoding.
+     */
+    public static int estimateString(String value) {
+        return value == null ? NULL.length : value.length() + 2;
+    }
+
+    public void writeStartObject() {
+        writeSeparator();
+        writeByte('{');
+    }
+
+    public void writeEndObject() {
+        writeByte('}');
+    }
+
+    public void writeStartArray() {
+        writeSeparator();
+        writeByte('[');
+    }
+
+    public void writeEndArray() {
+        writeByte(']');
+    }
+
+    /** Writes a field name, which must have been encoded without escaping customizations. */
+    public void writeFieldName(SerializableString name) {
+        writeSeparator();
+        writeQuoted(name);
+        writeByte(':');
+    }
+
+    public void writeNull() {
+        writeSeparator();
+        writeBytes(NULL);
+    }
+
+    public void writeBoolean(boolean value) {
+        writeSeparator();
+        writeBytes(value ? TRUE : FALSE);
+    }
+
+    public void writeNumber(int value) {
+        writeSeparator();
+        ensureCapacity(MAX_NUMBER_LENGTH);
+        count = NumberOutput.outputInt(value, buffer, count);
+    }
+
+    public void writeNumber(long value) {
+        writeSeparator();
+        ensureCapacity(MAX_NUMBER_LENGTH);
+        count = NumberOutput.outputLong(value, buffer, count);
+    }
+
+    /** Non-finite values are written as strings, matching {@code JsonWriteFeature.WRITE_NAN_AS_STRINGS}. */
+    public void writeNumber(double value) {
+        String text = Double.toString(value);
+        if (Double.isFinite(value)) {
+            writeSeparator();
+            writeAscii(text);
+        } else {
+            writeString(text);
+        }
+    }
+
+    /** Non-finite values are written as strings, matching {@code JsonWriteFeature.WRITE_NAN_AS_STRINGS}. */
+    public void writeNumber(float value) {
+        String text = Float.toString(value);
+        if (Float.isFinite(value)) {
+            writeSeparator();
+            writeAscii(text);
+        } else {
+            writeString(text);
+        }
+    }
+
+    /** Writes a string, or null. Printable ascii characters are copied directly until one requires encoding. */
+    public void writeString(String value) {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        writeSeparator();
+        int length = value.length();
+        ensureCapacity(length + 2);
+        byte[] bytes = buffer;
+        int position = count;
+        bytes[position++] = '"';
+        for (int i = 0; i < length; i++) {
+            char character = value.charAt(i);
+            if (character >= 0x80 || character < 0x20 || character == '"' || character == '\\') {
+                count = position;
+                writeEncoded(value, i);
+                writeByte('"');
+                return;
+            }
+            bytes[position++] = (byte) character;
+        }
+        bytes[position++] = '"';
+        count = position;
+    }
+
+    /**
+     * Writes the remainder of a string the way {@code UTF8JsonGenerator} does, escaping control characters and each
+     * half of a surrogate pair.
+     */
+    private void writeEncoded(String value, int from) {
+        for (int i = from; i < value.length(); i++) {
+            // Escapes are the longest encoding of a character
+            ensureCapacity(6);
+            char character = value.charAt(i);
+            if (character < 0x80) {
+                if (character < 0x20 || character == '"' || character == '\\') {
+                    writeEscape(character);
+                } else {
+                    buffer[count++] = (byte) character;
+                }
+            } else if (character < 0x800) {
+                buffer[count++] = (byte) (0xC0 | (character >> 6));
+                buffer[count++] = (byte) (0x80 | (character & 0x3F));
+            } else if (Character.isSurrogate(character)) {
+                writeEscape(character);
+            } else {
+                buffer[count++] = (byte) (0xE0 | (character >> 12));
+                buffer[count++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (character & 0x3F));
+            }
+        }
+    }
+
+    private void writeEscape(char character) {
+        buffer[count++] = '\\';
+        char shortEscape = shortEscape(character);
+        if (shortEscape != 0) {
+            buffer[count++] = (byte) shortEscape;
+            return;
+        }
+        buffer[count++] = 'u';
+        buffer[count++] = HEX[(character >> 12) & 0xF];
+        buffer[count++] = HEX[(character >> 8) & 0xF];
+        buffer[count++] = HEX[(character >> 4) & 0xF];
+        buffer[count++] = HEX[character & 0xF];
+    }
+
+    private static char shortEscape(char character) {
+        switch (character) {
+            case '"':
+                return '"';
+            case '\\':
+                return '\\';
+            case '\b':
+                return 'b';
+            case '\t':
+                return 't';
+            case '\f':
+                return 'f';
+            case '\n':
+                return 'n';
+            case '\r':
+                return 'r';
+            default:
+                return 0;
+        }
+    }
+
+    /** Writes a pre-encoded string, which must have been encoded without escaping customizations. */
+    public void writeString(SerializableString value) {
+        writeSeparator();
+        writeQuoted(value);
+    }
+
+    /** Values are separated unless they begin an object or array, or follow a field name. */
+    private void writeSeparator() {
+        if (count > 0) {
+            byte last = buffer[count - 1];
+            if (last != '{' && last != '[' && last != ':') {
+                writeByte(',');
+            }
+        }
+    }
+
+    private void writeQuoted(SerializableString value) {
+        byte[] encoded = value.asQuotedUTF8();
+        ensureCapacity(encoded.length + 2);
+        buffer[count++] = '"';
+        System.arraycopy(encoded, 0, buffer, count, encoded.length);
+        count += encoded.length;
+        buffer[count++] = '"';
+    }
+
+    private void writeAscii(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[count++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeByte(char value) {
+        ensureCapacity(1);
+        buffer[count++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = count + additional;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+
+    /** Returns a copy of the written bytes. */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    @Override
+    public String getValue() {
+        return new String(buffer, 0, count, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return JsonStringEncoder.getInstance().quoteAsString(getValue());
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return toByteArray();
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return JsonStringEncoder.getInstance().quoteAsUTF8(getValue());
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] target, int offset) {
+        return append(asQuotedUTF8(), target, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] target, int offset) {
+        char[] quoted = asQuotedChars();
+        if (quoted.length > target.length - offset) {
+            return -1;
+        }
+        System.arraycopy(quoted, 0, target, offset, quoted.length);
+        return quoted.length;
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] target, int offset) {
+        if (count > target.length - offset) {
+            return -1;
+        }
+        System.arraycopy(buffer, 0, target, offset, count);
+        return count;
+    }
+
+    @Override
+    public int appendUnquoted(char[] target, int offset) {
+        String value = getValue();
+        if (value.length() > target.length - offset) {
+            return -1;
+        }
+        value.getChars(0, value.length(), target, offset);
+        return value.length();
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        byte[] quoted = asQuotedUTF8();
+        out.write(quoted);
+        return quoted.length;
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(buffer, 0, count);
+        return count;
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer target) {
+        byte[] quoted = asQuotedUTF8();
+        return put(quoted, quoted.length, target);
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer target) {
+        return put(buffer, count, target);
+    }
+
+    private static int append(byte[] bytes, byte[] target, int offset) {
+        if (bytes.length > target.length - offset) {
+            return -1;
+        }
+        System.arraycopy(bytes, 0, target, offset, bytes.length);
+        return bytes.length;
+    }
+
+    private static int put(byte[] bytes, int length, ByteBuffer target) {
+        if (length > target.remaining()) {
+            return -1;
+        }
+        target.put(bytes, 0, length);
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializationBenchmark {
+
+    @Param
+    private MapperType mapper;
+
+    private ObjectReader simpleReader;
+    private ObjectReader wideReader;
+    private ObjectReader nestedReader;
+    private ObjectReader listReader;
+    private ObjectReader mapReader;
+
+    private byte[] simple;
+    private byte[] wide;
+    private byte[] nested;
+    private byte[] list;
+    private byte[] map;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = mapper.create();
+        simpleReader = objectMapper.readerFor(SimpleValue.class);
+        wideReader = objectMapper.readerFor(WideValue.class);
+        nestedReader = objectMapper.readerFor(NestedValue.class);
+        listReader = objectMapper.readerFor(ListValue.class);
+        mapReader = objectMapper.readerFor(MapValue.class);
+        // Inputs are identical for every mapper so results are directly comparable
+        ObjectMapper encoder = MapperType.BEAN.create();
+        simple = encoder.writeValueAsBytes(Payloads.simple());
+        wide = encoder.writeValueAsBytes(Payloads.wide());
+        nested = encoder.writeValueAsBytes(Payloads.nested());
+        list = encoder.writeValueAsBytes(Payloads.list());
+        map = encoder.writeValueAsBytes(Payloads.map());
+    }
+
+    @Benchmark
+    public SimpleValue simple() throws IOException {
+        return simpleReader.readValue(simple);
+    }
+
+    @Benchmark
+    public WideValue wide() throws IOException {
+        return wideReader.readValue(wide);
+    }
+
+    @Benchmark
+    public NestedValue nested() throws IOException {
+        return nestedReader.readValue(nested);
+    }
+
+    @Benchmark
+    public ListValue list() throws IOException {
+        return listReader.readValue(list);
+    }
+
+    @Benchmark
+    public MapValue map() throws IOException {
+        return mapReader.readValue(map);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/** Serialization strategies compared by the benchmarks. */
+public enum MapperType {
+    /** Serializers and deserializers generated by the annotation processor. */
+    GENERATED {
+        @Override
+        ObjectMapper create() {
+            return base().registerModule(new BenchmarkModule());
+        }
+    },
+    /** Reflective {@code BeanSerializer} and {@code BeanDeserializer}. */
+    BEAN {
+        @Override
+        ObjectMapper create() {
+            return base();
+        }
+    },
+    AFTERBURNER {
+        @Override
+        ObjectMapper create() {
+            return base().registerModule(new AfterburnerModule());
+        }
+    },
+    BLACKBIRD {
+        @Override
+        ObjectMapper create() {
+            return base().registerModule(new BlackbirdModule());
+        }
+    };
+
+    abstract ObjectMapper create();
+
+    private static ObjectMapper base() {
+        return new ObjectMapper().registerModule(new Jdk8Module());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/** Sample instances of each benchmarked shape. */
+final class Payloads {
+
+    private static final int SIZE = 100;
+    private static final int DEPTH = 20;
+
+    static SimpleValue simple() {
+        return simple(0);
+    }
+
+    static WideValue wide() {
+        WideValue value = new WideValue();
+        value.setField00("value00");
+        value.setField01(1);
+        value.setField02(2L);
+        value.setField03(3.5D);
+        value.setField04("value04");
+        value.setField05(5);
+        value.setField06(6L);
+        value.setField07(7.5D);
+        value.setField08("value08");
+        value.setField09(9);
+        value.setField10(10L);
+        value.setField11(11.5D);
+        value.setField12("value12");
+        value.setField13(13);
+        value.setField14(14L);
+        value.setField15(15.5D);
+        value.setField16("value16");
+        value.setField17(17);
+        value.setField18(18L);
+        value.setField19(19.5D);
+        value.setField20("value20");
+        value.setField21(21);
+        value.setField22(22L);
+        value.setField23(23.5D);
+        value.setField24("value24");
+        value.setField25(25);
+        value.setField26(26L);
+        value.setField27(27.5D);
+        value.setField28("value28");
+        value.setField29(29);
+        value.setField30(30L);
+        value.setField31(31.5D);
+        value.setField32("value32");
+        value.setField33(33);
+        value.setField34(34L);
+        value.setField35(35.5D);
+        value.setField36("value36");
+        value.setField37(37);
+        value.setField38(38L);
+        value.setField39(39.5D);
+        value.setField40("value40");
+        value.setField41(41);
+        value.setField42(42L);
+        value.setField43(43.5D);
+        value.setField44("value44");
+        value.setField45(45);
+        value.setField46(46L);
+        value.setField47(47.5D);
+        value.setField48("value48");
+        value.setField49(49);
+        return value;
+    }
+
+    static NestedValue nested() {
+        NestedValue value = null;
+        for (int depth = DEPTH; depth >= 0; depth--) {
+            NestedValue parent = new NestedValue();
+            parent.setName("node" + depth);
+            parent.setDepth(depth);
+            parent.setChild(value);
+            value = parent;
+        }
+        return value;
+    }
+
+    static ListValue list() {
+        List<String> names = new ArrayList<>(SIZE);
+        List<Long> counts = new ArrayList<>(SIZE);
+        List<SimpleValue> items = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            names.add("name" + i);
+            counts.add(i * 1_000_003L);
+            items.add(simple(i));
+        }
+        return new ListValue(names, counts, items);
+    }
+
+    static MapValue map() {
+        Map<String, String> tags = new LinkedHashMap<>();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        Map<String, SimpleValue> items = new LinkedHashMap<>();
+        for (int i = 0; i < SIZE; i++) {
+            tags.put("tag" + i, "value" + i);
+            counts.put("count" + i, i * 1_000_003L);
+            items.put("item" + i, simple(i));
+        }
+        return new MapValue(tags, counts, items);
+    }
+
+    private static SimpleValue simple(int index) {
+        return new SimpleValue(
+                "simple" + index,
+                index,
+                index % 2 == 0 ? 1_623_000_000_000L + index : null,
+                index / 3D,
+                index % 3 == 0 ? OptionalInt.empty() : OptionalInt.of(index));
+    }
+
+    private Payloads() {}
+}
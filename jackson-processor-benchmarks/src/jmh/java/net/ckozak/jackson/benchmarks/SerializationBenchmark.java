@@ -0,0 +1,97 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param
+    private MapperType mapper;
+
+    private ObjectWriter simpleWriter;
+    private ObjectWriter wideWriter;
+    private ObjectWriter nestedWriter;
+    private ObjectWriter listWriter;
+    private ObjectWriter mapWriter;
+
+    private SimpleValue simple;
+    private WideValue wide;
+    private NestedValue nested;
+    private ListValue list;
+    private MapValue map;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = mapper.create();
+        simpleWriter = objectMapper.writerFor(SimpleValue.class);
+        wideWriter = objectMapper.writerFor(WideValue.class);
+        nestedWriter = objectMapper.writerFor(NestedValue.class);
+        listWriter = objectMapper.writerFor(ListValue.class);
+        mapWriter = objectMapper.writerFor(MapValue.class);
+        simple = Payloads.simple();
+        wide = Payloads.wide();
+        nested = Payloads.nested();
+        list = Payloads.list();
+        map = Payloads.map();
+    }
+
+    @Benchmark
+    public byte[] simple() throws JsonProcessingException {
+        return simpleWriter.writeValueAsBytes(simple);
+    }
+
+    @Benchmark
+    public byte[] wide() throws JsonProcessingException {
+        return wideWriter.writeValueAsBytes(wide);
+    }
+
+    @Benchmark
+    public byte[] nested() throws JsonProcessingException {
+        return nestedWriter.writeValueAsBytes(nested);
+    }
+
+    @Benchmark
+    public byte[] list() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public byte[] map() throws JsonProcessingException {
+        return mapWriter.writeValueAsBytes(map);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonCreator.Mode;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+public final class ListValue {
+
+    private final List<String> names;
+    private final List<Long> counts;
+    private final List<SimpleValue> items;
+
+    @JsonCreator(mode = Mode.PROPERTIES)
+    public ListValue(
+            @JsonProperty("names") List<String> names,
+            @JsonProperty("counts") List<Long> counts,
+            @JsonProperty("items") List<SimpleValue> items) {
+        this.names = names;
+        this.counts = counts;
+        this.items = items;
+    }
+
+    @JsonProperty("names")
+    public List<String> getNames() {
+        return names;
+    }
+
+    @JsonProperty("counts")
+    public List<Long> getCounts() {
+        return counts;
+    }
+
+    @JsonProperty("items")
+    public List<SimpleValue> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonCreator.Mode;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+public final class MapValue {
+
+    private final Map<String, String> tags;
+    private final Map<String, Long> counts;
+    private final Map<String, SimpleValue> items;
+
+    @JsonCreator(mode = Mode.PROPERTIES)
+    public MapValue(
+            @JsonProperty("tags") Map<String, String> tags,
+            @JsonProperty("counts") Map<String, Long> counts,
+            @JsonProperty("items") Map<String, SimpleValue> items) {
+        this.tags = tags;
+        this.counts = counts;
+        this.items = items;
+    }
+
+    @JsonProperty("tags")
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @JsonProperty("counts")
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    @JsonProperty("items")
+    public Map<String, SimpleValue> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+/** Singly linked chain of values, exercising serializer lookup and dispatch for nested objects. */
+@JacksonProcessor
+public final class NestedValue {
+
+    private String name;
+    private int depth;
+    private NestedValue child;
+
+    @JsonProperty("name")
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("name")
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @JsonProperty("depth")
+    public int getDepth() {
+        return depth;
+    }
+
+    @JsonProperty("depth")
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    @JsonProperty("child")
+    public NestedValue getChild() {
+        return child;
+    }
+
+    @JsonProperty("child")
+    public void setChild(NestedValue child) {
+        this.child = child;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonCreator.Mode;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.OptionalInt;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+public final class SimpleValue {
+
+    private final String name;
+    private final int count;
+    private final Long timestamp;
+    private final double ratio;
+    private final OptionalInt limit;
+
+    @JsonCreator(mode = Mode.PROPERTIES)
+    public SimpleValue(
+            @JsonProperty("name") String name,
+            @JsonProperty("count") int count,
+            @JsonProperty("timestamp") Long timestamp,
+            @JsonProperty("ratio") double ratio,
+            @JsonProperty("limit") OptionalInt limit) {
+        this.name = name;
+        this.count = count;
+        this.timestamp = timestamp;
+        this.ratio = ratio;
+        this.limit = limit;
+    }
+
+    @JsonProperty("name")
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("count")
+    public int getCount() {
+        return count;
+    }
+
+    @JsonProperty("timestamp")
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    @JsonProperty("ratio")
+    public double getRatio() {
+        return ratio;
+    }
+
+    @JsonProperty("limit")
+    public OptionalInt getLimit() {
+        return limit;
+    }
+}
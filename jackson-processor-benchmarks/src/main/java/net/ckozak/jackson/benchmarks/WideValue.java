@@ -0,0 +1,576 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+/** Mutable bean with fifty properties, exercising the per-property overhead of each serializer. */
+@JacksonProcessor
+public final class WideValue {
+
+    private String field00;
+    private int field01;
+    private long field02;
+    private double field03;
+    private String field04;
+    private int field05;
+    private long field06;
+    private double field07;
+    private String field08;
+    private int field09;
+    private long field10;
+    private double field11;
+    private String field12;
+    private int field13;
+    private long field14;
+    private double field15;
+    private String field16;
+    private int field17;
+    private long field18;
+    private double field19;
+    private String field20;
+    private int field21;
+    private long field22;
+    private double field23;
+    private String field24;
+    private int field25;
+    private long field26;
+    private double field27;
+    private String field28;
+    private int field29;
+    private long field30;
+    private double field31;
+    private String field32;
+    private int field33;
+    private long field34;
+    private double field35;
+    private String field36;
+    private int field37;
+    private long field38;
+    private double field39;
+    private String field40;
+    private int field41;
+    private long field42;
+    private double field43;
+    private String field44;
+    private int field45;
+    private long field46;
+    private double field47;
+    private String field48;
+    private int field49;
+
+    @JsonProperty("field00")
+    public String getField00() {
+        return field00;
+    }
+
+    @JsonProperty("field00")
+    public void setField00(String field00) {
+        this.field00 = field00;
+    }
+
+    @JsonProperty("field01")
+    public int getField01() {
+        return field01;
+    }
+
+    @JsonProperty("field01")
+    public void setField01(int field01) {
+        this.field01 = field01;
+    }
+
+    @JsonProperty("field02")
+    public long getField02() {
+        return field02;
+    }
+
+    @JsonProperty("field02")
+    public void setField02(long field02) {
+        this.field02 = field02;
+    }
+
+    @JsonProperty("field03")
+    public double getField03() {
+        return field03;
+    }
+
+    @JsonProperty("field03")
+    public void setField03(double field03) {
+        this.field03 = field03;
+    }
+
+    @JsonProperty("field04")
+    public String getField04() {
+        return field04;
+    }
+
+    @JsonProperty("field04")
+    public void setField04(String field04) {
+        this.field04 = field04;
+    }
+
+    @JsonProperty("field05")
+    public int getField05() {
+        return field05;
+    }
+
+    @JsonProperty("field05")
+    public void setField05(int field05) {
+        this.field05 = field05;
+    }
+
+    @JsonProperty("field06")
+    public long getField06() {
+        return field06;
+    }
+
+    @JsonProperty("field06")
+    public void setField06(long field06) {
+        this.field06 = field06;
+    }
+
+    @JsonProperty("field07")
+    public double getField07() {
+        return field07;
+    }
+
+    @JsonProperty("field07")
+    public void setField07(double field07) {
+        this.field07 = field07;
+    }
+
+    @JsonProperty("field08")
+    public String getField08() {
+        return field08;
+    }
+
+    @JsonProperty("field08")
+    public void setField08(String field08) {
+        this.field08 = field08;
+    }
+
+    @JsonProperty("field09")
+    public int getField09() {
+        return field09;
+    }
+
+    @JsonProperty("field09")
+    public void setField09(int field09) {
+        this.field09 = field09;
+    }
+
+    @JsonProperty("field10")
+    public long getField10() {
+        return field10;
+    }
+
+    @JsonProperty("field10")
+    public void setField10(long field10) {
+        this.field10 = field10;
+    }
+
+    @JsonProperty("field11")
+    public double getField11() {
+        return field11;
+    }
+
+    @JsonProperty("field11")
+    public void setField11(double field11) {
+        this.field11 = field11;
+    }
+
+    @JsonProperty("field12")
+    public String getField12() {
+        return field12;
+    }
+
+    @JsonProperty("field12")
+    public void setField12(String field12) {
+        this.field12 = field12;
+    }
+
+    @JsonProperty("field13")
+    public int getField13() {
+        return field13;
+    }
+
+    @JsonProperty("field13")
+    public void setField13(int field13) {
+        this.field13 = field13;
+    }
+
+    @JsonProperty("field14")
+    public long getField14() {
+        return field14;
+    }
+
+    @JsonProperty("field14")
+    public void setField14(long field14) {
+        this.field14 = field14;
+    }
+
+    @JsonProperty("field15")
+    public double getField15() {
+        return field15;
+    }
+
+    @JsonProperty("field15")
+    public void setField15(double field15) {
+        this.field15 = field15;
+    }
+
+    @JsonProperty("field16")
+    public String getField16() {
+        return field16;
+    }
+
+    @JsonProperty("field16")
+    public void setField16(String field16) {
+        this.field16 = field16;
+    }
+
+    @JsonProperty("field17")
+    public int getField17() {
+        return field17;
+    }
+
+    @JsonProperty("field17")
+    public void setField17(int field17) {
+        this.field17 = field17;
+    }
+
+    @JsonProperty("field18")
+    public long getField18() {
+        return field18;
+    }
+
+    @JsonProperty("field18")
+    public void setField18(long field18) {
+        this.field18 = field18;
+    }
+
+    @JsonProperty("field19")
+    public double getField19() {
+        return field19;
+    }
+
+    @JsonProperty("field19")
+    public void setField19(double field19) {
+        this.field19 = field19;
+    }
+
+    @JsonProperty("field20")
+    public String getField20() {
+        return field20;
+    }
+
+    @JsonProperty("field20")
+    public void setField20(String field20) {
+        this.field20 = field20;
+    }
+
+    @JsonProperty("field21")
+    public int getField21() {
+        return field21;
+    }
+
+    @JsonProperty("field21")
+    public void setField21(int field21) {
+        this.field21 = field21;
+    }
+
+    @JsonProperty("field22")
+    public long getField22() {
+        return field22;
+    }
+
+    @JsonProperty("field22")
+    public void setField22(long field22) {
+        this.field22 = field22;
+    }
+
+    @JsonProperty("field23")
+    public double getField23() {
+        return field23;
+    }
+
+    @JsonProperty("field23")
+    public void setField23(double field23) {
+        this.field23 = field23;
+    }
+
+    @JsonProperty("field24")
+    public String getField24() {
+        return field24;
+    }
+
+    @JsonProperty("field24")
+    public void setField24(String field24) {
+        this.field24 = field24;
+    }
+
+    @JsonProperty("field25")
+    public int getField25() {
+        return field25;
+    }
+
+    @JsonProperty("field25")
+    public void setField25(int field25) {
+        this.field25 = field25;
+    }
+
+    @JsonProperty("field26")
+    public long getField26() {
+        return field26;
+    }
+
+    @JsonProperty("field26")
+    public void setField26(long field26) {
+        this.field26 = field26;
+    }
+
+    @JsonProperty("field27")
+    public double getField27() {
+        return field27;
+    }
+
+    @JsonProperty("field27")
+    public void setField27(double field27) {
+        this.field27 = field27;
+    }
+
+    @JsonProperty("field28")
+    public String getField28() {
+        return field28;
+    }
+
+    @JsonProperty("field28")
+    public void setField28(String field28) {
+        this.field28 = field28;
+    }
+
+    @JsonProperty("field29")
+    public int getField29() {
+        return field29;
+    }
+
+    @JsonProperty("field29")
+    public void setField29(int field29) {
+        this.field29 = field29;
+    }
+
+    @JsonProperty("field30")
+    public long getField30() {
+        return field30;
+    }
+
+    @JsonProperty("field30")
+    public void setField30(long field30) {
+        this.field30 = field30;
+    }
+
+    @JsonProperty("field31")
+    public double getField31() {
+        return field31;
+    }
+
+    @JsonProperty("field31")
+    public void setField31(double field31) {
+        this.field31 = field31;
+    }
+
+    @JsonProperty("field32")
+    public String getField32() {
+        return field32;
+    }
+
+    @JsonProperty("field32")
+    public void setField32(String field32) {
+        this.field32 = field32;
+    }
+
+    @JsonProperty("field33")
+    public int getField33() {
+        return field33;
+    }
+
+    @JsonProperty("field33")
+    public void setField33(int field33) {
+        this.field33 = field33;
+    }
+
+    @JsonProperty("field34")
+    public long getField34() {
+        return field34;
+    }
+
+    @JsonProperty("field34")
+    public void setField34(long field34) {
+        this.field34 = field34;
+    }
+
+    @JsonProperty("field35")
+    public double getField35() {
+        return field35;
+    }
+
+    @JsonProperty("field35")
+    public void setField35(double field35) {
+        this.field35 = field35;
+    }
+
+    @JsonProperty("field36")
+    public String getField36() {
+        return field36;
+    }
+
+    @JsonProperty("field36")
+    public void setField36(String field36) {
+        this.field36 = field36;
+    }
+
+    @JsonProperty("field37")
+    public int getField37() {
+        return field37;
+    }
+
+    @JsonProperty("field37")
+    public void setField37(int field37) {
+        this.field37 = field37;
+    }
+
+    @JsonProperty("field38")
+    public long getField38() {
+        return field38;
+    }
+
+    @JsonProperty("field38")
+    public void setField38(long field38) {
+        this.field38 = field38;
+    }
+
+    @JsonProperty("field39")
+    public double getField39() {
+        return field39;
+    }
+
+    @JsonProperty("field39")
+    public void setField39(double field39) {
+        this.field39 = field39;
+    }
+
+    @JsonProperty("field40")
+    public String getField40() {
+        return field40;
+    }
+
+    @JsonProperty("field40")
+    public void setField40(String field40) {
+        this.field40 = field40;
+    }
+
+    @JsonProperty("field41")
+    public int getField41() {
+        return field41;
+    }
+
+    @JsonProperty("field41")
+    public void setField41(int field41) {
+        this.field41 = field41;
+    }
+
+    @JsonProperty("field42")
+    public long getField42() {
+        return field42;
+    }
+
+    @JsonProperty("field42")
+    public void setField42(long field42) {
+        this.field42 = field42;
+    }
+
+    @JsonProperty("field43")
+    public double getField43() {
+        return field43;
+    }
+
+    @JsonProperty("field43")
+    public void setField43(double field43) {
+        this.field43 = field43;
+    }
+
+    @JsonProperty("field44")
+    public String getField44() {
+        return field44;
+    }
+
+    @JsonProperty("field44")
+    public void setField44(String field44) {
+        this.field44 = field44;
+    }
+
+    @JsonProperty("field45")
+    public int getField45() {
+        return field45;
+    }
+
+    @JsonProperty("field45")
+    public void setField45(int field45) {
+        this.field45 = field45;
+    }
+
+    @JsonProperty("field46")
+    public long getField46() {
+        return field46;
+    }
+
+    @JsonProperty("field46")
+    public void setField46(long field46) {
+        this.field46 = field46;
+    }
+
+    @JsonProperty("field47")
+    public double getField47() {
+        return field47;
+    }
+
+    @JsonProperty("field47")
+    public void setField47(double field47) {
+        this.field47 = field47;
+    }
+
+    @JsonProperty("field48")
+    public String getField48() {
+        return field48;
+    }
+
+    @JsonProperty("field48")
+    public void setField48(String field48) {
+        this.field48 = field48;
+    }
+
+    @JsonProperty("field49")
+    public int getField49() {
+        return field49;
+    }
+
+    @JsonProperty("field49")
+    public void setField49(int field49) {
+        this.field49 = field49;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.dataformat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class BinaryFormatTest {
+    private static final List<Object> VALUES = Arrays.asList(
+            new FixedShape("fixed", 3, 1.5, FixedShape.Kind.SECOND, Arrays.asList("a", "b", null)),
+            new FixedShape(null, -1, Double.NaN, null, Collections.emptyList()),
+            new FixedShape("fixed", 0, 0, FixedShape.Kind.FIRST, null),
+            new SparseShape("sparse", "description"),
+            new SparseShape("sparse", null));
+
+    @Test
+    public void testSmileMatchesBeanSerializer() throws IOException {
+        SmileFactory factory = new SmileFactory();
+        for (Object value : VALUES) {
+            assertThat(generated(factory).writeValueAsBytes(value))
+                    .as("%s", value)
+                    .isEqualTo(bean(factory).writeValueAsBytes(value));
+        }
+    }
+
+    @Test
+    public void testCborMatchesBeanSerializer() throws IOException {
+        // CBORGenerator does not override the sized writeStartObject, so maps remain indefinite length
+        CBORFactory factory = new CBORFactory();
+        for (Object value : VALUES) {
+            assertThat(generated(factory).writeValueAsBytes(value))
+                    .as("%s", value)
+                    .isEqualTo(bean(factory).writeValueAsBytes(value));
+        }
+    }
+
+    private static ObjectMapper generated(JsonFactory factory) {
+        return new ObjectMapper(factory)
+                .registerModule(new SimpleModule()
+                        .addSerializer(FixedShape.class, new FixedShape_GeneratedSerializer())
+                        .addSerializer(SparseShape.class, new SparseShape_GeneratedSerializer()));
+    }
+
+    private static ObjectMapper bean(JsonFactory factory) {
+        return new ObjectMapper(factory);
+    }
+}
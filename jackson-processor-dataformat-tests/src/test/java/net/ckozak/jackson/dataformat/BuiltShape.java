@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.dataformat;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+/** Built using an immutable builder, where each wither returns a new builder, and a mutable setter. */
+@JacksonProcessor
+@JsonDeserialize(builder = BuiltShape.Builder.class)
+public final class BuiltShape {
+
+    private final String name;
+    private final int count;
+    private final String note;
+
+    private BuiltShape(String name, int count, String note) {
+        this.name = name;
+        this.count = count;
+        this.note = note;
+    }
+
+    @JsonProperty("name")
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("count")
+    public int getCount() {
+        return count;
+    }
+
+    @JsonProperty("note")
+    public String getNote() {
+        return note;
+    }
+
+    public static final class Builder {
+        private final String name;
+        private final int count;
+        private String note;
+
+        public Builder() {
+            this(null, 0, null);
+        }
+
+        private Builder(String name, int count, String note) {
+            this.name = name;
+            this.count = count;
+            this.note = note;
+        }
+
+        public Builder withName(String value) {
+            return new Builder(value, count, note);
+        }
+
+        @JsonProperty("count")
+        public Builder count(int value) {
+            return new Builder(name, value, note);
+        }
+
+        @JsonProperty("note")
+        public void note(String value) {
+            this.note = value;
+        }
+
+        public BuiltShape build() {
+            return new BuiltShape(name, count, note);
+        }
+    }
+}
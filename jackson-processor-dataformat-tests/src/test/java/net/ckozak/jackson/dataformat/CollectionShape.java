@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.dataformat;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+/** Collection properties which generated serializers write inline. */
+@JacksonProcessor
+public final class CollectionShape {
+
+    private final List<String> names;
+    private final Set<Integer> ids;
+    private final Collection<Kind> kinds;
+
+    public CollectionShape(List<String> names, Set<Integer> ids, Collection<Kind> kinds) {
+        this.names = names;
+        this.ids = ids;
+        this.kinds = kinds;
+    }
+
+    @JsonProperty("names")
+    public List<String> getNames() {
+        return names;
+    }
+
+    @JsonProperty("ids")
+    public Set<Integer> getIds() {
+        return ids;
+    }
+
+    @JsonProperty("kinds")
+    public Collection<Kind> getKinds() {
+        return kinds;
+    }
+
+    public enum Kind {
+        FIRST,
+        SECOND
+    }
+}
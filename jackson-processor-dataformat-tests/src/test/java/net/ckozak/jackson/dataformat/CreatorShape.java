@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.dataformat;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+import java.util.List;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+/**
+ * Created using a property based creator, with a read-only property which is ignored when reading, and a setter
+ * and field which are applied after the creator.
+ */
+@JacksonProcessor
+public final class CreatorShape {
+
+    private final String name;
+    private final int count;
+    private final Long total;
+    private final boolean enabled;
+    private final BigDecimal amount;
+    private final List<String> tags;
+    private String note;
+
+    @JsonProperty("extra")
+    public String extra;
+
+    @JsonCreator
+    public CreatorShape(
+            @JsonProperty("name") String name,
+            @JsonProperty("count") int count,
+            @JsonProperty("total") Long total,
+            @JsonProperty("enabled") boolean enabled,
+            @JsonProperty("amount") BigDecimal amount,
+            @JsonProperty("tags") List<String> tags) {
+        this.name = name;
+        this.count = count;
+        this.total = total;
+        this.enabled = enabled;
+        this.amount = amount;
+        this.tags = tags;
+    }
+
+    @JsonProperty("name")
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("count")
+    public int getCount() {
+        return count;
+    }
+
+    @JsonProperty("total")
+    public Long getTotal() {
+        return total;
+    }
+
+    @JsonProperty("enabled")
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @JsonProperty("amount")
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    @JsonProperty("tags")
+    public List<String> getTags() {
+        return tags;
+    }
+
+    @JsonProperty("note")
+    public String getNote() {
+        return note;
+    }
+
+    @JsonProperty("note")
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    @JsonProperty("summary")
+    public String getSummary() {
+        return name + ':' + count;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.dataformat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Reads the same content using generated deserializers and the jackson BeanDeserializer, expecting equal values or
+ * the same type of failure.
+ */
+public class DeserializerTest {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final List<JsonFactory> FACTORIES =
+            Arrays.asList(new JsonFactory(), new SmileFactory(), new CBORFactory());
+
+    private static final List<UnaryOperator<ObjectReader>> READERS = Arrays.asList(
+            reader -> reader,
+            reader -> reader.with(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES),
+            reader -> reader.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+
+    @Test
+    public void testCreatorMatchesBeanDeserializer() throws IOException {
+        assertMatchesBeanDeserializer(
+                CreatorShape.class,
+                "{\"name\":\"creator\",\"count\":3,\"total\":4,\"enabled\":true,\"amount\":1.50,\"tags\":[\"a\",null]}",
+                "{\"tags\":[],\"count\":-1,\"name\":\"reordered\"}",
+                "{\"note\":\"before\",\"name\":\"set\",\"count\":1,\"enabled\":true,\"extra\":\"after\"}",
+                "{\"count\":1,\"enabled\":true,\"note\":null,\"extra\":null}",
+                "{\"count\":1,\"enabled\":true,\"note\":[]}",
+                "{}",
+                "{\"name\":null,\"count\":null,\"total\":null,\"enabled\":null,\"amount\":null,\"tags\":null}",
+                "{\"name\":5,\"count\":\"7\",\"total\":\"8\",\"enabled\":\"true\",\"amount\":\"2.5\"}",
+                // Jackson reports unknown properties after missing creator properties, which are provided here
+                "{\"count\":1,\"enabled\":false,\"summary\":\"read-only\"}",
+                "{\"count\":1,\"enabled\":false,\"unknown\":{\"nested\":[1,2]}}",
+                "{\"count\":[1]}",
+                "{\"name\":{}}",
+                "[]",
+                "\"creator\"");
+    }
+
+    @Test
+    public void testMutableBeanMatchesBeanDeserializer() throws IOException {
+        assertMatchesBeanDeserializer(
+                MutableShape.class,
+                "{\"label\":\"mutable\",\"count\":3,\"active\":true,\"tags\":[\"a\"],\"ratio\":0.5}",
+                "{}",
+                "{\"label\":null,\"count\":null,\"active\":null,\"tags\":null,\"ratio\":null}",
+                "{\"count\":\"9\",\"active\":\"false\",\"ratio\":\"1.5\"}",
+                "{\"setLabel\":\"method name\"}",
+                "{\"replaceTags\":[]}",
+                "{\"unknown\":true}",
+                "{\"ratio\":[]}",
+                "[]");
+    }
+
+    @Test
+    public void testMutableBeanPropertyNamesMatchBeanSerializer() throws IOException {
+        MutableShape value = new MutableShape();
+        value.setLabel("names");
+        value.setCount(2);
+        value.setActive(true);
+        value.ratio = 0.25;
+        assertThat(generated(new JsonFactory()).writeValueAsString(value)).isEqualTo(JSON.writeValueAsString(value));
+    }
+
+    @Test
+    public void testBuilderMatchesBeanDeserializer() throws IOException {
+        assertMatchesBeanDeserializer(
+                BuiltShape.class,
+                "{\"name\":\"built\",\"count\":3,\"note\":\"kept by withers\"}",
+                "{\"note\":\"first\",\"count\":4,\"name\":\"last\"}",
+                "{}",
+                "{\"name\":null,\"count\":null,\"note\":null}",
+                "{\"withName\":\"method name\"}",
+                "{\"unknown\":1}",
+                "{\"count\":{}}",
+                "[]");
+    }
+
+    private static void assertMatchesBeanDeserializer(Class<?> type, String... inputs) throws IOException {
+        for (JsonFactory factory : FACTORIES) {
+            for (String input : inputs) {
+                // Content is converted to the format from json, which is easier to read
+                byte[] content = new ObjectMapper(factory).writeValueAsBytes(JSON.readTree(input));
+                for (UnaryOperator<ObjectReader> reader : READERS) {
+                    ObjectReader generated = reader.apply(generated(factory).readerFor(type));
+                    ObjectReader bean = reader.apply(new ObjectMapper(factory).readerFor(type));
+                    assertThat(read(generated, content))
+                            .as("%s %s", factory.getFormatName(), input)
+                            .isEqualTo(read(bean, content));
+                }
+            }
+        }
+    }
+
+    /** Returns the value read from the content as a tree for comparison, or the type of the failure. */
+    private static Object read(ObjectReader reader, byte[] content) {
+        try {
+            return JSON.valueToTree(reader.readValue(content));
+        } catch (IOException e) {
+            return e.getClass();
+        }
+    }
+
+    private static ObjectMapper generated(JsonFactory factory) {
+        return new ObjectMapper(factory)
+                .registerModule(new SimpleModule()
+                        .addSerializer(MutableShape.class, new MutableShape_GeneratedSerializer())
+                        .addDeserializer(CreatorShape.class, new CreatorShape_GeneratedDeserializer())
+                        .addDeserializer(MutableShape.class, new MutableShape_GeneratedDeserializer())
+                        .addDeserializer(BuiltShape.class, new BuiltShape_GeneratedDeserializer()));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.dataformat;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+/** Always writes every property, so generated serializers pass the property count to writeStartObject. */
+@JacksonProcessor
+public final class FixedShape {
+
+    private final String name;
+    private final int count;
+    private final double ratio;
+    private final Kind kind;
+    private final List<String> tags;
+
+    public FixedShape(String name, int count, double ratio, Kind kind, List<String> tags) {
+        this.name = name;
+        this.count = count;
+        this.ratio = ratio;
+        this.kind = kind;
+        this.tags = tags;
+    }
+
+    @JsonProperty("name")
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("count")
+    public int getCount() {
+        return count;
+    }
+
+    @JsonProperty("ratio")
+    public double getRatio() {
+        return ratio;
+    }
+
+    @JsonProperty("kind")
+    public Kind getKind() {
+        return kind;
+    }
+
+    @JsonProperty("tags")
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public enum Kind {
+        FIRST,
+        SECOND
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.dataformat;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import java.util.List;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+/** Populated using setters and fields, with property names taken from the method names where not annotated. */
+@JacksonProcessor
+public final class MutableShape {
+
+    private String label;
+    private long count;
+    private boolean active;
+    private List<String> tags;
+
+    @JsonProperty("ratio")
+    public double ratio;
+
+    @JsonProperty
+    public String getLabel() {
+        return label;
+    }
+
+    @JsonSetter
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    @JsonProperty
+    public long getCount() {
+        return count;
+    }
+
+    @JsonProperty
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @JsonProperty
+    public boolean isActive() {
+        return active;
+    }
+
+    @JsonSetter
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    @JsonProperty("tags")
+    public List<String> getTags() {
+        return tags;
+    }
+
+    @JsonSetter("tags")
+    public void replaceTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
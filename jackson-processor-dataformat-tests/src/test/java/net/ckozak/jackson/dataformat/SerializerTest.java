@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.dataformat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.Test;
+
+/** Writes the same values using generated serializers and the jackson BeanSerializer, expecting equal output. */
+public class SerializerTest {
+    private static final ObjectMapper GENERATED = new ObjectMapper()
+            .registerModule(new SimpleModule()
+                    .addSerializer(CollectionShape.class, new CollectionShape_GeneratedSerializer()));
+    private static final ObjectMapper BEAN = new ObjectMapper();
+
+    private static final List<UnaryOperator<ObjectWriter>> WRITERS = Arrays.asList(
+            writer -> writer,
+            writer -> writer.with(SerializationFeature.WRITE_SINGLE_ELEM_ARRAYS_UNWRAPPED),
+            writer -> writer.with(SerializationFeature.WRITE_ENUMS_USING_INDEX));
+
+    @Test
+    public void testCollectionsMatchBeanSerializer() throws IOException {
+        assertMatchesBeanSerializer(
+                new CollectionShape(
+                        Collections.singletonList("single"),
+                        Collections.singleton(1),
+                        Collections.singletonList(CollectionShape.Kind.SECOND)),
+                new CollectionShape(
+                        Arrays.asList("a", null, "b"),
+                        new LinkedHashSet<>(Arrays.asList(3, null, 1)),
+                        Arrays.asList(CollectionShape.Kind.FIRST, CollectionShape.Kind.SECOND)),
+                new CollectionShape(Collections.emptyList(), Collections.emptySet(), null));
+    }
+
+    private static void assertMatchesBeanSerializer(Object... values) throws IOException {
+        for (Object value : values) {
+            for (UnaryOperator<ObjectWriter> writer : WRITERS) {
+                assertThat(writer.apply(GENERATED.writer()).writeValueAsString(value))
+                        .isEqualTo(writer.apply(BEAN.writer()).writeValueAsString(value));
+            }
+        }
+    }
+}
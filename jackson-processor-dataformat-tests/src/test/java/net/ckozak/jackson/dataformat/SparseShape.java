@@ -0,0 +1,46 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.dataformat;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+/** Omits null properties, so the number of written properties isn't known up front. */
+@JacksonProcessor
+public final class SparseShape {
+
+    private final String name;
+    private final String description;
+
+    public SparseShape(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    @JsonProperty("name")
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("description")
+    @JsonInclude(Include.NON_NULL)
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Objects;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+
+public final class EnumConstants {
+    private static final ImmutableSet<JsonFormat.Shape> WRITTEN_BY_NAME = ImmutableSet.of(
+            JsonFormat.Shape.ANY, JsonFormat.Shape.SCALAR, JsonFormat.Shape.STRING, JsonFormat.Shape.NATURAL);
+
+    /**
+     * Returns true if jackson writes constants of the enum using their {@link #serializedNames(TypeElement) names}
+     * by default. Enums with a {@link JsonValue} member, a custom serializer, or a non-string {@link JsonFormat}
+     * shape are written by their own serializers.
+     */
+    public static boolean isWrittenByName(TypeElement enumType) {
+        JsonFormat format = enumType.getAnnotation(JsonFormat.class);
+        if (format != null && !WRITTEN_BY_NAME.contains(format.shape())) {
+            return false;
+        }
+        if (enumType.getAnnotation(JsonSerialize.class) != null) {
+            return false;
+        }
+        return enumType.getEnclosedElements().stream().noneMatch(element -> {
+            JsonValue jsonValue = element.getAnnotation(JsonValue.class);
+            return jsonValue != null && jsonValue.value();
+        });
+    }
+
+    /**
+     * Returns the serialized names of each constant, indexed by ordinal. Names are taken from {@link JsonProperty}
+     * when present, otherwise {@link Enum#name()}.
+     */
+    public static ImmutableList<String> serializedNames(TypeElement enumType) {
+        return enumType.getEnclosedElements().stream()
+                .filter(element -> element.getKind() == ElementKind.ENUM_CONSTANT)
+                .map(EnumConstants::serializedName)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private static String serializedName(Element constant) {
+        JsonProperty property = constant.getAnnotation(JsonProperty.class);
+        if (property == null || Objects.equals(JsonProperty.USE_DEFAULT_NAME, property.value())) {
+            return constant.getSimpleName().toString();
+        }
+        return property.value();
+    }
+
+    private EnumConstants() {}
+}
@@ -16,18 +16,48 @@
 
 package net.ckozak.jackson.processor;
 
+import com.fasterxml.jackson.annotation.JacksonInject;
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonMerge;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.annotation.Nulls;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import com.fasterxml.jackson.databind.util.NameTransformer;
 import com.google.auto.service.AutoService;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.TypeName;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
 import javax.annotation.processing.Messager;
@@ -35,35 +65,78 @@ import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
 import net.ckozak.jackson.annotations.JacksonProcessor;
+import net.ckozak.jackson.processor.gen.deser.Deserializer;
+import net.ckozak.jackson.processor.gen.deser.DeserializerGenerator;
+import net.ckozak.jackson.processor.gen.deser.Deserializers;
+import net.ckozak.jackson.processor.gen.deser.Mutator;
+import net.ckozak.jackson.processor.gen.module.ModuleGenerator;
+import net.ckozak.jackson.processor.gen.module.Registration;
+import net.ckozak.jackson.processor.gen.ser.DispatchingSerializerGenerator;
 import net.ckozak.jackson.processor.gen.ser.Serializer;
 import net.ckozak.jackson.processor.gen.ser.SerializerGenerator;
+import net.ckozak.jackson.processor.gen.ser.SerializerTypeCache;
 import net.ckozak.jackson.processor.gen.ser.Serializers;
 import net.ckozak.jackson.processor.model.AccessorField;
 import net.ckozak.jackson.processor.model.AccessorMethod;
 import net.ckozak.jackson.processor.model.BoundProperty;
+import net.ckozak.jackson.processor.model.Creator;
+import net.ckozak.jackson.processor.model.SetterMethod;
 
 @AutoService(Processor.class)
 @SuppressWarnings("checkstyle:CyclomaticComplexity")
 public final class JacksonAnnotationProcessor extends AbstractProcessor {
     private static final ImmutableSet<String> ANNOTATIONS = ImmutableSet.of(JacksonProcessor.class.getName());
+    // Immutables annotations are not available at runtime
+    private static final String IMMUTABLES_ANNOTATION = "org.immutables.value.Value.Immutable";
+    // Property annotations which change how values are read, types using them are left to the BeanDeserializer
+    private static final ImmutableSet<String> PROPERTY_DESERIALIZATION_ANNOTATIONS = ImmutableSet.of(
+            JsonDeserialize.class.getName(),
+            JsonFormat.class.getName(),
+            JsonMerge.class.getName(),
+            JsonTypeInfo.class.getName(),
+            JacksonInject.class.getName());
+    /** Fully qualified name of a jackson module to generate, which registers all generated classes. */
+    private static final String MODULE_OPTION = "jackson.processor.module";
+    private static final String MODULE_SERVICE =
+            "META-INF/services/" + com.fasterxml.jackson.databind.Module.class.getName();
+    /**
+     * The processor is declared as a dynamic incremental processor. Each generated serializer and deserializer
+     * originates from a single type, however the module registers classes generated from every type.
+     */
+    private static final String GRADLE_ISOLATING = "org.gradle.annotation.processing.isolating";
+    private static final String GRADLE_AGGREGATING = "org.gradle.annotation.processing.aggregating";
 
     private Messager messager;
     private Filer filer;
     private Elements elements;
 
-    @SuppressWarnings("unused")
     private Types types;
 
+    private SerializerTypeCache serializerTypeCache;
+
+    // Types whose properties are being unwrapped, to detect cycles
+    private final Set<TypeElement> unwrapping = new HashSet<>();
+    private final List<Registration> serializerRegistrations = new ArrayList<>();
+    private final List<Registration> deserializerRegistrations = new ArrayList<>();
+    private final List<ClassName> modules = new ArrayList<>();
+
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
@@ -71,6 +144,7 @@ public final class JacksonAnnotationProcessor extends AbstractProcessor {
         this.filer = processingEnv.getFiler();
         this.elements = processingEnv.getElementUtils();
         this.types = processingEnv.getTypeUtils();
+        this.serializerTypeCache = new SerializerTypeCache(elements);
     }
 
     @Override
@@ -83,26 +157,76 @@ public final class JacksonAnnotationProcessor extends AbstractProcessor {
         return ANNOTATIONS;
     }
 
+    @Override
+    public ImmutableSet<String> getSupportedOptions() {
+        return ImmutableSet.of(
+                MODULE_OPTION,
+                processingEnv.getOptions().containsKey(MODULE_OPTION) ? GRADLE_AGGREGATING : GRADLE_ISOLATING);
+    }
+
     @Override
     public boolean process(Set<? extends TypeElement> _annotations, RoundEnvironment roundEnv) {
         if (roundEnv.processingOver()) {
+            writeModuleServices();
             return false;
         }
         for (Element element : roundEnv.getElementsAnnotatedWith(JacksonProcessor.class)) {
-            if (element.getKind() != ElementKind.INTERFACE && element.getKind() != ElementKind.CLASS) {
+            if (element.getKind() != ElementKind.INTERFACE
+                    && element.getKind() != ElementKind.CLASS
+                    && !Records.isRecord(element)) {
                 messager.printMessage(
                         Kind.ERROR,
-                        "Only classes may be instrumented using @" + JacksonProcessor.class.getSimpleName(),
+                        "Only classes and records may be instrumented using @" + JacksonProcessor.class.getSimpleName(),
                         element);
                 continue;
             }
             List<AccessorMethod> accessorMethods = new ArrayList<>();
             List<AccessorField> accessorFields = new ArrayList<>();
+            List<SetterMethod> setterMethods = new ArrayList<>();
+            Optional<ExecutableElement> anyGetter = Optional.empty();
+            Optional<ExecutableElement> anySetter = Optional.empty();
             TypeElement typeElement = (TypeElement) element;
+            if (Subtypes.isDispatched(typeElement)) {
+                // Not registered with the module: jackson would find the dispatcher for subtypes without a generated
+                // serializer, and the dispatcher falls back to the serializer jackson finds for the runtime type.
+                // Polymorphic types are deserialized by jackson using the type id.
+                write(() -> DispatchingSerializerGenerator.generateDispatchingSerializer(
+                        getClass().getName(), elements, typeElement, Subtypes.polymorphicType(elements, typeElement)));
+                continue;
+            }
+            Optional<Element> jsonValue = jsonValueElement(typeElement);
+            if (jsonValue.isPresent()) {
+                // Jackson reads values using a delegating creator rather than properties
+                generateValueSerializer(typeElement, jsonValue.get());
+                continue;
+            }
+            // Record components are properties without annotations, in declaration order
+            Set<Element> recordAccessors = new HashSet<>();
+            if (Records.isRecord(typeElement)) {
+                for (ExecutableElement accessor : Records.accessors(typeElement)) {
+                    recordAccessors.add(accessor);
+                    accessorMethods.add(AccessorMethod.builder()
+                            .method(accessor)
+                            .property(BoundProperty.builder()
+                                    .name(recordPropertyName(accessor))
+                                    .type(TypeName.get(accessor.getReturnType()))
+                                    .build())
+                            .build());
+                }
+            }
             for (Element enclosed : typeElement.getEnclosedElements()) {
+                if (recordAccessors.contains(enclosed) || Records.isComponent(enclosed)) {
+                    // Annotations on record components are propagated to both the accessor and the field
+                    continue;
+                }
                 JsonProperty property = enclosed.getAnnotation(JsonProperty.class);
                 JsonGetter getter = enclosed.getAnnotation(JsonGetter.class);
-                if (property == null && getter == null) {
+                JsonSetter setter = enclosed.getAnnotation(JsonSetter.class);
+                JsonAnyGetter jsonAnyGetter = enclosed.getAnnotation(JsonAnyGetter.class);
+                JsonAnySetter jsonAnySetter = enclosed.getAnnotation(JsonAnySetter.class);
+                boolean isAnyGetter = jsonAnyGetter != null && jsonAnyGetter.enabled();
+                boolean isAnySetter = jsonAnySetter != null && jsonAnySetter.enabled();
+                if (property == null && getter == null && setter == null && !isAnyGetter && !isAnySetter) {
                     continue;
                 }
                 if (enclosed.getModifiers().contains(Modifier.PRIVATE)
@@ -115,8 +239,42 @@ public final class JacksonAnnotationProcessor extends AbstractProcessor {
                     messager.printMessage(Kind.ERROR, "Static elements are not supported", enclosed);
                     continue;
                 }
+                if (isAnyGetter || isAnySetter) {
+                    if (enclosed.getKind() != ElementKind.METHOD) {
+                        messager.printMessage(
+                                Kind.ERROR,
+                                "Only methods may be annotated with @JsonAnyGetter or @JsonAnySetter",
+                                enclosed);
+                    } else if (isAnyGetter) {
+                        anyGetter = checkAnyGetter(anyGetter, (ExecutableElement) enclosed);
+                    } else {
+                        anySetter = checkAnySetter(anySetter, (ExecutableElement) enclosed);
+                    }
+                    continue;
+                }
                 if (enclosed.getKind() == ElementKind.METHOD) {
                     ExecutableElement executableElement = (ExecutableElement) enclosed;
+                    if (setter != null || (getter == null && executableElement.getParameters().size() == 1)) {
+                        if (executableElement.getParameters().size() != 1) {
+                            messager.printMessage(
+                                    Kind.ERROR, "Setter method must take exactly one argument", executableElement);
+                            continue;
+                        }
+                        setterMethods.add(SetterMethod.builder()
+                                .method(executableElement)
+                                .property(BoundProperty.builder()
+                                        .name(
+                                                setter == null
+                                                        ? PropertyNames.name(property, executableElement)
+                                                        : PropertyNames.name(setter, executableElement))
+                                        .type(TypeName.get(executableElement
+                                                .getParameters()
+                                                .get(0)
+                                                .asType()))
+                                        .build())
+                                .build());
+                        continue;
+                    }
                     if (!executableElement.getParameters().isEmpty()) {
                         messager.printMessage(
                                 Kind.ERROR, "Getter method must not take any arguments", executableElement);
@@ -152,43 +310,874 @@ public final class JacksonAnnotationProcessor extends AbstractProcessor {
                 }
             }
 
+            Include classInclude = classInclusion(typeElement);
+            // Jackson compares against a default constructed instance for class level NON_DEFAULT inclusion
+            boolean defaultInstance = classInclude == Include.NON_DEFAULT
+                    && typeElement.getTypeParameters().isEmpty()
+                    && hasDefaultConstructor(typeElement);
+            Optional<List<TypeName>> classViews = jsonViews(typeElement);
             List<Serializer> serializers = new ArrayList<>();
-            int index = 0;
+            AtomicInteger index = new AtomicInteger();
             for (AccessorMethod method : accessorMethods) {
-                serializers.add(Serializers.serializerFor(
+                String methodName = method.method().getSimpleName().toString();
+                serializers.add(propertySerializer(
+                        method.method(),
                         method.property().name(),
-                        method.property().type(),
-                        CodeBlock.of(
-                                "$N.$N()",
-                                "value",
-                                method.method().getSimpleName().toString()),
-                        "generator",
-                        index++));
+                        method.method().getReturnType(),
+                        CodeBlock.of("$N.$N()", "value", methodName),
+                        classInclude,
+                        classViews,
+                        defaultInstance
+                                ? Optional.of(CodeBlock.of("$N.$N()", StandardNames.DEFAULT_VALUE, methodName))
+                                : Optional.empty(),
+                        NameTransformer.NOP,
+                        index));
             }
             for (AccessorField field : accessorFields) {
-                serializers.add(Serializers.serializerFor(
+                String fieldName = field.field().getSimpleName().toString();
+                serializers.add(propertySerializer(
+                        field.field(),
                         field.property().name(),
-                        field.property().type(),
-                        CodeBlock.of(
-                                "$N.$N", "value", field.field().getSimpleName().toString()),
-                        "generator",
-                        index++));
+                        field.field().asType(),
+                        CodeBlock.of("$N.$N", "value", fieldName),
+                        classInclude,
+                        classViews,
+                        defaultInstance
+                                ? Optional.of(CodeBlock.of("$N.$N", StandardNames.DEFAULT_VALUE, fieldName))
+                                : Optional.empty(),
+                        NameTransformer.NOP,
+                        index));
+            }
+
+            List<Element> propertyElements = Stream.concat(
+                            accessorMethods.stream().map(AccessorMethod::method),
+                            accessorFields.stream().map(AccessorField::field))
+                    .collect(Collectors.toCollection(ArrayList::new));
+            if (anyGetter.isPresent()) {
+                // Jackson writes the entries after every other property
+                ExecutableElement method = anyGetter.get();
+                Optional<Serializer> anyGetterSerializer = Serializers.anyGetterFor(
+                        serializerTypeCache,
+                        method.getReturnType(),
+                        CodeBlock.of("$N.$N()", "value", method.getSimpleName()),
+                        index.getAndIncrement());
+                if (anyGetterSerializer.isPresent()) {
+                    serializers.add(anyGetterSerializer.get());
+                    propertyElements.add(method);
+                } else {
+                    messager.printMessage(Kind.ERROR, "Any getters must return a Map with String keys", method);
+                }
+            }
+
+            JacksonProcessor options = typeElement.getAnnotation(JacksonProcessor.class);
+            boolean rawFieldNames = options.rawFieldNames();
+            boolean utf8Sink = options.utf8Sink() && checkSinkProperties(typeElement, serializers, propertyElements);
+            write(() -> SerializerGenerator.generateSerializer(
+                            getClass().getName(),
+                            elements,
+                            typeElement,
+                            serializers,
+                            rawFieldNames,
+                            utf8Sink,
+                            defaultInstance))
+                    .ifPresent(serializer -> register(serializerRegistrations, typeElement, serializer));
+
+            // Unwrapped properties are read by the jackson BeanDeserializer, which buffers unknown properties for them
+            if (serializers.stream().allMatch(serializer -> serializer.unwrapped().isEmpty())) {
+                generateDeserializer(typeElement, accessorMethods, accessorFields, setterMethods, anySetter);
+            }
+        }
+        generateModule();
+        return false;
+    }
+
+    /**
+     * Creates the serializer for a property, writing the properties of {@link JsonUnwrapped} values in its place.
+     *
+     * @param names renames properties of the value unwrapped by the enclosing property
+     */
+    private Serializer propertySerializer(
+            Element element,
+            String name,
+            TypeMirror type,
+            CodeBlock accessor,
+            Include classInclude,
+            Optional<List<TypeName>> classViews,
+            Optional<CodeBlock> defaultValue,
+            NameTransformer names,
+            AtomicInteger index) {
+        JsonUnwrapped unwrapped = element.getAnnotation(JsonUnwrapped.class);
+        if (unwrapped != null && unwrapped.enabled()) {
+            Optional<TypeElement> unwrappedType = unwrappedType(element, type);
+            if (unwrappedType.isPresent()) {
+                // Jackson renames properties using the innermost prefix and suffix only: serializers of nested
+                // unwrapped values are resolved before the enclosing unwrapped property renames its properties.
+                NameTransformer unwrappedNames =
+                        NameTransformer.simpleTransformer(unwrapped.prefix(), unwrapped.suffix());
+                Serializer serializer =
+                        unwrappedSerializer(unwrappedType.get(), type, accessor, unwrappedNames, index);
+                return withViews(serializer, element, classViews);
+            }
+        }
+        JsonRawValue rawValue = element.getAnnotation(JsonRawValue.class);
+        boolean isRawValue = rawValue != null && rawValue.value();
+        if (isRawValue && !TypeNames.STRING.equals(TypeName.get(type))) {
+            messager.printMessage(Kind.ERROR, "Only String properties may be annotated with @JsonRawValue", element);
+            isRawValue = false;
+        }
+        Serializer serializer = Serializers.serializerFor(
+                serializerTypeCache,
+                names.transform(name),
+                type,
+                accessor,
+                inclusion(classInclude, element),
+                defaultValue,
+                Nullness.isNonNull(element, type),
+                isRawValue,
+                "generator",
+                index.getAndIncrement());
+        return withViews(serializer, element, classViews);
+    }
+
+    /**
+     * Returns the method or field annotated with {@link JsonValue}, which jackson writes in place of the object.
+     * Reports an error if it can't be read from the generated serializer.
+     */
+    private Optional<Element> jsonValueElement(TypeElement typeElement) {
+        Optional<Element> result = Optional.empty();
+        for (Element enclosed : typeElement.getEnclosedElements()) {
+            JsonValue jsonValue = enclosed.getAnnotation(JsonValue.class);
+            if (jsonValue == null || !jsonValue.value() || Records.isComponent(enclosed)) {
+                // Annotations on record components are read from the accessor
+                continue;
+            }
+            if (enclosed.getModifiers().contains(Modifier.PRIVATE)
+                    || enclosed.getModifiers().contains(Modifier.PROTECTED)
+                    || enclosed.getModifiers().contains(Modifier.STATIC)) {
+                messager.printMessage(
+                        Kind.ERROR,
+                        "@JsonValue elements must be instance members accessible from the same package",
+                        enclosed);
+            } else if (enclosed.getKind() == ElementKind.METHOD
+                    && !((ExecutableElement) enclosed).getParameters().isEmpty()) {
+                messager.printMessage(Kind.ERROR, "@JsonValue methods must not take any arguments", enclosed);
+            } else if (result.isPresent()) {
+                messager.printMessage(Kind.ERROR, "Only one element may be annotated with @JsonValue", enclosed);
+            } else if (enclosed.getKind() == ElementKind.METHOD || enclosed.getKind() == ElementKind.FIELD) {
+                result = Optional.of(enclosed);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generates a serializer writing the {@link JsonValue} inline. Values other than strings, numbers and booleans, and
+     * generic types, are left to jackson.
+     */
+    private void generateValueSerializer(TypeElement typeElement, Element jsonValue) {
+        if (!typeElement.getTypeParameters().isEmpty()) {
+            return;
+        }
+        boolean method = jsonValue.getKind() == ElementKind.METHOD;
+        TypeMirror valueType = method ? ((ExecutableElement) jsonValue).getReturnType() : jsonValue.asType();
+        CodeBlock accessor = method
+                ? CodeBlock.of("$N.$N()", "value", jsonValue.getSimpleName())
+                : CodeBlock.of("$N.$N", "value", jsonValue.getSimpleName());
+        Optional<Serializer> maybeSerializer = Serializers.jsonValueFor(serializerTypeCache, valueType, accessor);
+        if (!maybeSerializer.isPresent()) {
+            return;
+        }
+        Serializer serializer = maybeSerializer.get();
+        boolean utf8Sink = typeElement.getAnnotation(JacksonProcessor.class).utf8Sink()
+                && checkSinkProperties(typeElement, ImmutableList.of(serializer), ImmutableList.of(jsonValue));
+        write(() -> SerializerGenerator.generateValueSerializer(
+                        getClass().getName(), elements, typeElement, TypeName.get(valueType), serializer, utf8Sink))
+                .ifPresent(generated -> register(serializerRegistrations, typeElement, generated));
+    }
+
+    /**
+     * Returns the type of a {@link JsonUnwrapped} property if its properties can be written in place, which requires
+     * the properties to be known at compile time. Reports an error otherwise.
+     */
+    private Optional<TypeElement> unwrappedType(Element element, TypeMirror type) {
+        if (type.getKind() == TypeKind.DECLARED) {
+            TypeElement typeElement = (TypeElement) types.asElement(type);
+            if (typeElement.getAnnotation(JacksonProcessor.class) != null
+                    && typeElement.getModifiers().contains(Modifier.FINAL)
+                    && typeElement.getTypeParameters().isEmpty()) {
+                if (unwrapping.contains(typeElement)) {
+                    messager.printMessage(Kind.ERROR, "Unwrapped properties may not be recursive", element);
+                    return Optional.empty();
+                }
+                return Optional.of(typeElement);
+            }
+        }
+        messager.printMessage(
+                Kind.ERROR,
+                "Unwrapped properties must be final, non-generic types annotated with @"
+                        + JacksonProcessor.class.getSimpleName(),
+                element);
+        return Optional.empty();
+    }
+
+    /**
+     * Creates a serializer which writes the properties of the unwrapped type, the same properties its own generated
+     * serializer writes, when the value is non-null.
+     */
+    private Serializer unwrappedSerializer(
+            TypeElement typeElement, TypeMirror type, CodeBlock accessor, NameTransformer names, AtomicInteger index) {
+        String localName = "unwrapped" + index.getAndIncrement();
+        Include classInclude = classInclusion(typeElement);
+        if (classInclude == Include.NON_DEFAULT) {
+            // Defaults would be read from an instance of the unwrapped type rather than the enclosing type
+            messager.printMessage(
+                    Kind.ERROR, "Unwrapped types may not use class level NON_DEFAULT inclusion", typeElement);
+            classInclude = Include.ALWAYS;
+        }
+        Optional<List<TypeName>> classViews = jsonViews(typeElement);
+        unwrapping.add(typeElement);
+        List<Serializer> properties = new ArrayList<>();
+        Set<Element> recordAccessors = new HashSet<>();
+        if (Records.isRecord(typeElement)) {
+            for (ExecutableElement recordAccessor : Records.accessors(typeElement)) {
+                recordAccessors.add(recordAccessor);
+                properties.add(propertySerializer(
+                        recordAccessor,
+                        recordPropertyName(recordAccessor),
+                        recordAccessor.getReturnType(),
+                        CodeBlock.of("$N.$N()", localName, recordAccessor.getSimpleName()),
+                        classInclude,
+                        classViews,
+                        Optional.empty(),
+                        names,
+                        index));
+            }
+        }
+        // Errors in the remaining members are reported when the generated serializer of the type is created
+        List<ExecutableElement> methods = new ArrayList<>();
+        List<VariableElement> fields = new ArrayList<>();
+        for (Element enclosed : typeElement.getEnclosedElements()) {
+            if (recordAccessors.contains(enclosed)
+                    || Records.isComponent(enclosed)
+                    || enclosed.getModifiers().contains(Modifier.PRIVATE)
+                    || enclosed.getModifiers().contains(Modifier.PROTECTED)
+                    || enclosed.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            JsonProperty property = enclosed.getAnnotation(JsonProperty.class);
+            JsonGetter getter = enclosed.getAnnotation(JsonGetter.class);
+            if (enclosed.getKind() == ElementKind.METHOD
+                    && (property != null || getter != null)
+                    && enclosed.getAnnotation(JsonSetter.class) == null
+                    && ((ExecutableElement) enclosed).getParameters().isEmpty()) {
+                methods.add((ExecutableElement) enclosed);
+            } else if (enclosed.getKind() == ElementKind.FIELD && property != null) {
+                fields.add((VariableElement) enclosed);
+            }
+        }
+        for (ExecutableElement method : methods) {
+            JsonProperty property = method.getAnnotation(JsonProperty.class);
+            properties.add(propertySerializer(
+                    method,
+                    property == null
+                            ? PropertyNames.name(method.getAnnotation(JsonGetter.class), method)
+                            : PropertyNames.name(property, method),
+                    method.getReturnType(),
+                    CodeBlock.of("$N.$N()", localName, method.getSimpleName()),
+                    classInclude,
+                    classViews,
+                    Optional.empty(),
+                    names,
+                    index));
+        }
+        for (VariableElement field : fields) {
+            properties.add(propertySerializer(
+                    field,
+                    PropertyNames.name(field.getAnnotation(JsonProperty.class), field),
+                    field.asType(),
+                    CodeBlock.of("$N.$N", localName, field.getSimpleName()),
+                    classInclude,
+                    classViews,
+                    Optional.empty(),
+                    names,
+                    index));
+        }
+        unwrapping.remove(typeElement);
+        return Serializer.builder()
+                .valueDeclaration(CodeBlock.builder()
+                        .addStatement("$T $N = $L", TypeName.get(type), localName, accessor)
+                        .build())
+                .includeCondition(CodeBlock.of("$N != null", localName))
+                .serializerBlock(CodeBlock.of(""))
+                .unwrapped(properties)
+                .sinkBlock(
+                        properties.stream().allMatch(property -> property.sinkBlock().isPresent())
+                                ? Optional.of(CodeBlock.of(""))
+                                : Optional.empty())
+                .build();
+    }
+
+    /** Returns the any getter, reporting an error if the type already declared one. */
+    private Optional<ExecutableElement> checkAnyGetter(
+            Optional<ExecutableElement> existing, ExecutableElement method) {
+        if (existing.isPresent()) {
+            messager.printMessage(Kind.ERROR, "Only one method may be annotated with @JsonAnyGetter", method);
+            return existing;
+        }
+        if (!method.getParameters().isEmpty()) {
+            messager.printMessage(Kind.ERROR, "Getter method must not take any arguments", method);
+            return existing;
+        }
+        return Optional.of(method);
+    }
+
+    /** Returns the any setter, reporting an error if the type already declared one. */
+    private Optional<ExecutableElement> checkAnySetter(
+            Optional<ExecutableElement> existing, ExecutableElement method) {
+        if (existing.isPresent()) {
+            messager.printMessage(Kind.ERROR, "Only one method may be annotated with @JsonAnySetter", method);
+            return existing;
+        }
+        if (method.getParameters().size() != 2
+                || !TypeNames.STRING.equals(TypeName.get(method.getParameters().get(0).asType()))) {
+            messager.printMessage(
+                    Kind.ERROR, "Any setter method must take a String property name and a value", method);
+            return existing;
+        }
+        return Optional.of(method);
+    }
+
+    private static String recordPropertyName(ExecutableElement accessor) {
+        JsonProperty property = accessor.getAnnotation(JsonProperty.class);
+        if (property != null) {
+            return PropertyNames.name(property, accessor);
+        }
+        JsonGetter getter = accessor.getAnnotation(JsonGetter.class);
+        if (getter != null) {
+            return PropertyNames.name(getter, accessor);
+        }
+        return accessor.getSimpleName().toString();
+    }
+
+    private Include classInclusion(TypeElement typeElement) {
+        JsonInclude jsonInclude = typeElement.getAnnotation(JsonInclude.class);
+        if (jsonInclude == null || jsonInclude.value() == Include.USE_DEFAULTS) {
+            return Include.ALWAYS;
+        }
+        return checkInclusion(jsonInclude.value(), typeElement);
+    }
+
+    /** Property level {@link JsonInclude} takes precedence over the class level inclusion. */
+    private Include inclusion(Include classInclude, Element property) {
+        JsonInclude jsonInclude = property.getAnnotation(JsonInclude.class);
+        if (jsonInclude == null || jsonInclude.value() == Include.USE_DEFAULTS) {
+            return classInclude;
+        }
+        return checkInclusion(jsonInclude.value(), property);
+    }
+
+    /** Property level {@link JsonView} takes precedence over the class level views. */
+    private static Serializer withViews(Serializer serializer, Element property, Optional<List<TypeName>> classViews) {
+        return Serializer.builder()
+                .from(serializer)
+                .views(jsonViews(property).or(() -> classViews))
+                .build();
+    }
+
+    /** Returns the view classes listed by {@link JsonView}, or empty if the element isn't annotated. */
+    @SuppressWarnings("unchecked")
+    private static Optional<List<TypeName>> jsonViews(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (!isAnnotation(mirror, JsonView.class.getName())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                    mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    return Optional.of(((List<? extends AnnotationValue>) entry.getValue().getValue())
+                            .stream()
+                            .map(view -> TypeName.get((TypeMirror) view.getValue()))
+                            .collect(ImmutableList.toImmutableList()));
+                }
+            }
+            return Optional.of(ImmutableList.of());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Reports properties which can't be written to a sink, as types which enable {@link JacksonProcessor#utf8Sink()}
+     * are written by a static method. Returns true if every property can be written.
+     */
+    private boolean checkSinkProperties(
+            TypeElement typeElement, List<Serializer> serializers, List<Element> propertyElements) {
+        if (!typeElement.getTypeParameters().isEmpty()) {
+            messager.printMessage(Kind.ERROR, "Generic types may not be written to a sink", typeElement);
+            return false;
+        }
+        boolean compatible = true;
+        for (int i = 0; i < serializers.size(); i++) {
+            if (!serializers.get(i).sinkBlock().isPresent()) {
+                messager.printMessage(
+                        Kind.ERROR,
+                        "Properties written to a sink must be strings, numbers, booleans, enums, collections of"
+                                + " those, or final types which also enable the sink",
+                        propertyElements.get(i));
+                compatible = false;
             }
+        }
+        return compatible;
+    }
+
+    private Include checkInclusion(Include include, Element element) {
+        if (include == Include.CUSTOM) {
+            messager.printMessage(Kind.ERROR, "Custom inclusion filters are not supported", element);
+            return Include.ALWAYS;
+        }
+        return include;
+    }
 
+    /** Returns the name of the written class, or empty if it could not be generated. */
+    private Optional<ClassName> write(Supplier<JavaFile> generator) {
+        try {
+            JavaFile generatedFile = generator.get();
             try {
-                JavaFile generatedFile = SerializerGenerator.generateSerializer(
-                        getClass().getName(), elements, typeElement, serializers);
-                try {
-                    generatedFile.writeTo(filer);
-                } catch (IOException e) {
-                    messager.printMessage(
-                            Kind.ERROR, "Failed to write instrumented class: " + Throwables.getStackTraceAsString(e));
+                generatedFile.writeTo(filer);
+                return Optional.of(ClassName.get(generatedFile.packageName, generatedFile.typeSpec.name));
+            } catch (IOException e) {
+                messager.printMessage(
+                        Kind.ERROR, "Failed to write instrumented class: " + Throwables.getStackTraceAsString(e));
+            }
+        } catch (RuntimeException e) {
+            messager.printMessage(
+                    Kind.ERROR, "Failed to generate instrumented class: " + Throwables.getStackTraceAsString(e));
+        }
+        return Optional.empty();
+    }
+
+    private void writeDeserializer(TypeElement typeElement, Supplier<JavaFile> generator) {
+        write(generator).ifPresent(deserializer -> register(deserializerRegistrations, typeElement, deserializer));
+    }
+
+    private void register(List<Registration> registrations, TypeElement typeElement, ClassName generatedClass) {
+        // The module may be generated into another package
+        if (isPublic(typeElement)) {
+            registrations.add(Registration.builder()
+                    .type(ClassName.get(typeElement))
+                    .generatedClass(generatedClass)
+                    .generic(!typeElement.getTypeParameters().isEmpty())
+                    .build());
+        }
+    }
+
+    /**
+     * Generates a module for classes generated in this round. Classes generated by other processors may be
+     * handled in later rounds, so each round which generates classes produces a new module.
+     */
+    private void generateModule() {
+        String moduleOption = processingEnv.getOptions().get(MODULE_OPTION);
+        if (moduleOption == null || (serializerRegistrations.isEmpty() && deserializerRegistrations.isEmpty())) {
+            return;
+        }
+        ClassName moduleName = ClassName.bestGuess(moduleOption);
+        if (!modules.isEmpty()) {
+            moduleName = moduleName.peerClass(moduleName.simpleName() + (modules.size() + 1));
+        }
+        ClassName generatedModule = moduleName;
+        List<Registration> serializers = ImmutableList.copyOf(serializerRegistrations);
+        List<Registration> deserializers = ImmutableList.copyOf(deserializerRegistrations);
+        serializerRegistrations.clear();
+        deserializerRegistrations.clear();
+        write(() -> ModuleGenerator.generateModule(getClass().getName(), generatedModule, serializers, deserializers))
+                .ifPresent(modules::add);
+    }
+
+    private void writeModuleServices() {
+        if (modules.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject services = filer.createResource(StandardLocation.CLASS_OUTPUT, "", MODULE_SERVICE);
+            try (Writer writer = services.openWriter()) {
+                for (ClassName module : modules) {
+                    writer.write(module.reflectionName());
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(
+                    Kind.ERROR, "Failed to write " + MODULE_SERVICE + ": " + Throwables.getStackTraceAsString(e));
+        }
+    }
+
+    private static boolean isPublic(TypeElement typeElement) {
+        for (Element current = typeElement; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            if (!current.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void generateDeserializer(
+            TypeElement typeElement,
+            List<AccessorMethod> accessorMethods,
+            List<AccessorField> accessorFields,
+            List<SetterMethod> setterMethods,
+            Optional<ExecutableElement> anySetter) {
+        if (!typeElement.getTypeParameters().isEmpty()) {
+            // Only serializers support type parameters at the moment
+            return;
+        }
+        if (hasPropertyDeserializationAnnotations(typeElement)) {
+            return;
+        }
+        // Jackson writes properties which are serialized, but cannot otherwise be deserialized, into the field backing
+        // the property. Generated code may not have access to the field, so they're ignored rather than failing on
+        // unknown properties. Properties without a field are unknown to the BeanDeserializer as well. They're
+        // passed to the any setter if present.
+        Set<String> ignoredProperties = new LinkedHashSet<>();
+        if (anySetter.isEmpty()) {
+            Set<String> fieldNames = ElementFilter.fieldsIn(typeElement.getEnclosedElements()).stream()
+                    .filter(field -> !field.getModifiers().contains(Modifier.STATIC))
+                    .map(field -> field.getSimpleName().toString())
+                    .collect(Collectors.toSet());
+            accessorMethods.stream()
+                    .filter(method -> fieldNames.contains(PropertyNames.implicitName(method.method())))
+                    .forEach(method -> ignoredProperties.add(method.property().name()));
+            accessorFields.forEach(field -> ignoredProperties.add(field.property().name()));
+        }
+
+        Optional<Creator> maybeCreator = findCreator(typeElement).or(() -> recordCreator(typeElement));
+        if (maybeCreator.isPresent() && anySetter.isPresent()) {
+            // Jackson buffers any properties until the creator has been invoked, which is left to the BeanDeserializer
+            return;
+        }
+        if (maybeCreator.isPresent()) {
+            Creator creator = maybeCreator.get();
+            List<Deserializer> deserializers = new ArrayList<>();
+            for (BoundProperty parameter : creator.parameters()) {
+                deserializers.add(
+                        Deserializers.deserializerFor(parameter.name(), parameter.type(), deserializers.size()));
+                ignoredProperties.remove(parameter.name());
+            }
+            // Setters and fields are applied once the creator has been invoked, properties bound to a creator
+            // parameter are only passed to the creator.
+            Set<String> creatorProperties =
+                    deserializers.stream().map(Deserializer::propertyName).collect(Collectors.toSet());
+            List<Mutator> mutators = mutators(setterMethods, accessorFields, deserializers.size()).stream()
+                    .filter(mutator -> !creatorProperties.contains(mutator.deserializer().propertyName()))
+                    .collect(Collectors.toList());
+            mutators.forEach(mutator -> ignoredProperties.remove(mutator.deserializer().propertyName()));
+            writeDeserializer(typeElement, () -> DeserializerGenerator.generateCreatorDeserializer(
+                    getClass().getName(),
+                    elements,
+                    typeElement,
+                    creator.executable(),
+                    deserializers,
+                    mutators,
+                    ignoredProperties));
+            return;
+        }
+
+        if (generateBuilderDeserializer(typeElement, accessorMethods, ignoredProperties)) {
+            // Builders receive any properties using an any setter of the builder rather than the built type
+            return;
+        }
+
+        List<Mutator> mutators = mutators(setterMethods, accessorFields, 0);
+        if ((mutators.isEmpty() && anySetter.isEmpty()) || !hasDefaultConstructor(typeElement)) {
+            return;
+        }
+        mutators.forEach(mutator -> ignoredProperties.remove(mutator.deserializer().propertyName()));
+        Optional<Mutator> anySetterMutator = anySetter.map(method -> anySetterMutator(method, mutators.size()));
+        writeDeserializer(typeElement, () -> DeserializerGenerator.generateBeanDeserializer(
+                getClass().getName(), elements, typeElement, mutators, anySetterMutator, ignoredProperties));
+    }
+
+    /** Creates mutators for each setter and non-final field, numbering deserializers from {@code firstIndex}. */
+    private static List<Mutator> mutators(
+            List<SetterMethod> setterMethods, List<AccessorField> accessorFields, int firstIndex) {
+        List<Mutator> mutators = new ArrayList<>();
+        for (SetterMethod method : setterMethods) {
+            mutators.add(Mutator.builder()
+                    .memberName(method.method().getSimpleName().toString())
+                    .kind(Mutator.Kind.SETTER)
+                    .deserializer(Deserializers.deserializerFor(
+                            method.property().name(), method.property().type(), firstIndex + mutators.size()))
+                    .build());
+        }
+        for (AccessorField field : accessorFields) {
+            if (!field.field().getModifiers().contains(Modifier.FINAL)) {
+                mutators.add(Mutator.builder()
+                        .memberName(field.field().getSimpleName().toString())
+                        .kind(Mutator.Kind.FIELD)
+                        .deserializer(Deserializers.deserializerFor(
+                                field.property().name(), field.property().type(), firstIndex + mutators.size()))
+                        .build());
+            }
+        }
+        return mutators;
+    }
+
+    private static Mutator anySetterMutator(ExecutableElement method, int index) {
+        return Mutator.builder()
+                .memberName(method.getSimpleName().toString())
+                .kind(Mutator.Kind.SETTER)
+                .deserializer(Deserializers.deserializerFor(
+                        method.getSimpleName().toString(),
+                        TypeName.get(method.getParameters().get(1).asType()),
+                        index))
+                .build();
+    }
+
+    /**
+     * Generates a deserializer for types which are built using a {@link JsonDeserialize#builder()} or an
+     * Immutables generated builder, returning false if the type is not built using a builder.
+     */
+    private boolean generateBuilderDeserializer(
+            TypeElement typeElement, List<AccessorMethod> accessorMethods, Set<String> ignoredProperties) {
+        Optional<TypeMirror> explicitBuilder = jsonDeserializeBuilder(typeElement);
+        boolean immutables = isImmutablesType(typeElement);
+        if (explicitBuilder.isEmpty() && !immutables) {
+            return false;
+        }
+        if (!immutables && explicitBuilder.get().getKind() == TypeKind.ERROR) {
+            // Builders which haven't been generated yet can only be handled by convention
+            return false;
+        }
+        TypeName builderType;
+        CodeBlock newBuilder;
+        String buildMethod = "build";
+        List<Mutator> mutators = new ArrayList<>();
+        Optional<ExecutableElement> builderAnySetter = Optional.empty();
+        boolean resolvedBuilder =
+                explicitBuilder.isPresent() && explicitBuilder.get().getKind() != TypeKind.ERROR;
+        Optional<ExecutableElement> builderFactory = ElementFilter.methodsIn(typeElement.getEnclosedElements()).stream()
+                .filter(method -> method.getModifiers().contains(Modifier.STATIC)
+                        && !method.getModifiers().contains(Modifier.PRIVATE)
+                        && method.getParameters().isEmpty()
+                        && method.getSimpleName().contentEquals("builder"))
+                .findFirst();
+        // A static builder factory is preferred over the builder constructor, which may not be accessible
+        if (builderFactory.isPresent()) {
+            builderType = resolvedBuilder
+                    ? TypeName.get(explicitBuilder.get())
+                    : TypeName.get(builderFactory.get().getReturnType());
+            newBuilder = CodeBlock.of("$T.builder()", TypeNames.erased(TypeName.get(typeElement.asType())));
+        } else if (immutables) {
+            ClassName immutableType = ClassName.get(
+                    elements.getPackageOf(typeElement).getQualifiedName().toString(),
+                    "Immutable" + typeElement.getSimpleName());
+            builderType = resolvedBuilder ? TypeName.get(explicitBuilder.get()) : immutableType.nestedClass("Builder");
+            newBuilder = CodeBlock.of("$T.builder()", immutableType);
+        } else {
+            if (!hasDefaultConstructor((TypeElement) types.asElement(explicitBuilder.get()))) {
+                messager.printMessage(
+                        Kind.ERROR,
+                        "Builder must have an accessible no-argument constructor or a static builder() factory",
+                        typeElement);
+                return true;
+            }
+            builderType = TypeName.get(explicitBuilder.get());
+            newBuilder = CodeBlock.of("new $T()", builderType);
+        }
+        if (immutables) {
+            // Immutables builders may not have been generated yet, however they accept each attribute
+            // using a method named for the attribute.
+            for (AccessorMethod accessor : accessorMethods) {
+                mutators.add(Mutator.builder()
+                        .memberName(PropertyNames.attributeName(accessor.method()))
+                        .kind(Mutator.Kind.SETTER)
+                        .deserializer(Deserializers.deserializerFor(
+                                accessor.property().name(), accessor.property().type(), mutators.size()))
+                        .build());
+            }
+        } else {
+            TypeElement builderElement = (TypeElement) types.asElement(explicitBuilder.get());
+            JsonPOJOBuilder pojoBuilder = builderElement.getAnnotation(JsonPOJOBuilder.class);
+            String withPrefix = pojoBuilder == null ? JsonPOJOBuilder.DEFAULT_WITH_PREFIX : pojoBuilder.withPrefix();
+            buildMethod = pojoBuilder == null ? JsonPOJOBuilder.DEFAULT_BUILD_METHOD : pojoBuilder.buildMethodName();
+            for (ExecutableElement method : ElementFilter.methodsIn(builderElement.getEnclosedElements())) {
+                JsonAnySetter jsonAnySetter = method.getAnnotation(JsonAnySetter.class);
+                if (jsonAnySetter != null && jsonAnySetter.enabled()) {
+                    builderAnySetter = checkAnySetter(builderAnySetter, method);
+                    continue;
+                }
+                Optional<String> propertyName = PropertyNames.builderPropertyName(method, withPrefix);
+                if (method.getModifiers().contains(Modifier.STATIC)
+                        || method.getModifiers().contains(Modifier.PRIVATE)
+                        || method.getParameters().size() != 1
+                        || propertyName.isEmpty()) {
+                    continue;
+                }
+                mutators.add(Mutator.builder()
+                        .memberName(method.getSimpleName().toString())
+                        .kind(
+                                types.isSameType(method.getReturnType(), explicitBuilder.get())
+                                        ? Mutator.Kind.WITHER
+                                        : Mutator.Kind.SETTER)
+                        .deserializer(Deserializers.deserializerFor(
+                                propertyName.get(),
+                                TypeName.get(method.getParameters().get(0).asType()),
+                                mutators.size()))
+                        .build());
+            }
+        }
+        mutators.forEach(mutator -> ignoredProperties.remove(mutator.deserializer().propertyName()));
+        if (builderAnySetter.isPresent()) {
+            ignoredProperties.clear();
+        }
+        String buildMethodName = buildMethod;
+        Optional<Mutator> anySetterMutator =
+                builderAnySetter.map(method -> anySetterMutator(method, mutators.size()));
+        writeDeserializer(typeElement, () -> DeserializerGenerator.generateBuilderDeserializer(
+                getClass().getName(),
+                elements,
+                typeElement,
+                builderType,
+                newBuilder,
+                buildMethodName,
+                mutators,
+                anySetterMutator,
+                ignoredProperties));
+        return true;
+    }
+
+    /**
+     * Jackson merges the annotations of each field, method and parameter which declares a property, so annotations
+     * which change how a property is read may be found on any of them.
+     */
+    private static boolean hasPropertyDeserializationAnnotations(TypeElement typeElement) {
+        List<Element> annotated = new ArrayList<>(ElementFilter.fieldsIn(typeElement.getEnclosedElements()));
+        for (ExecutableElement executable : Iterables.concat(
+                ElementFilter.methodsIn(typeElement.getEnclosedElements()),
+                ElementFilter.constructorsIn(typeElement.getEnclosedElements()))) {
+            annotated.add(executable);
+            annotated.addAll(executable.getParameters());
+        }
+        return annotated.stream().anyMatch(element -> {
+            JsonSetter setter = element.getAnnotation(JsonSetter.class);
+            if (setter != null && (setter.nulls() != Nulls.DEFAULT || setter.contentNulls() != Nulls.DEFAULT)) {
+                return true;
+            }
+            return element.getAnnotationMirrors().stream()
+                    .anyMatch(mirror -> PROPERTY_DESERIALIZATION_ANNOTATIONS.stream()
+                            .anyMatch(name -> isAnnotation(mirror, name)));
+        });
+    }
+
+    private static Optional<TypeMirror> jsonDeserializeBuilder(TypeElement typeElement) {
+        for (AnnotationMirror mirror : typeElement.getAnnotationMirrors()) {
+            if (!isAnnotation(mirror, JsonDeserialize.class.getName())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                    mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("builder")) {
+                    return Optional.of((TypeMirror) entry.getValue().getValue());
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isImmutablesType(TypeElement typeElement) {
+        return typeElement.getAnnotationMirrors().stream()
+                .anyMatch(mirror -> isAnnotation(mirror, IMMUTABLES_ANNOTATION));
+    }
+
+    private static boolean isAnnotation(AnnotationMirror mirror, String annotationName) {
+        return ((TypeElement) mirror.getAnnotationType().asElement())
+                .getQualifiedName()
+                .contentEquals(annotationName);
+    }
+
+    private static boolean hasDefaultConstructor(TypeElement typeElement) {
+        if (typeElement.getKind() != ElementKind.CLASS || typeElement.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        // Implicit default constructors are included in the enclosed elements
+        return ElementFilter.constructorsIn(typeElement.getEnclosedElements()).stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty()
+                        && !constructor.getModifiers().contains(Modifier.PRIVATE));
+    }
+
+    /**
+     * Records without an explicit {@link JsonCreator} are created using the canonical constructor, binding each
+     * component to the property of its accessor.
+     */
+    private Optional<Creator> recordCreator(TypeElement typeElement) {
+        if (!Records.isRecord(typeElement)) {
+            return Optional.empty();
+        }
+        List<ExecutableElement> accessors = Records.accessors(typeElement);
+        return Records.canonicalConstructor(types, typeElement)
+                .filter(constructor -> !constructor.getModifiers().contains(Modifier.PRIVATE))
+                .map(constructor -> {
+                    List<BoundProperty> parameters = new ArrayList<>();
+                    for (int i = 0; i < accessors.size(); i++) {
+                        VariableElement parameter = constructor.getParameters().get(i);
+                        JsonProperty property = parameter.getAnnotation(JsonProperty.class);
+                        parameters.add(BoundProperty.builder()
+                                .name(
+                                        property == null
+                                                ? recordPropertyName(accessors.get(i))
+                                                : PropertyNames.name(property, parameter))
+                                .type(TypeName.get(parameter.asType()))
+                                .build());
+                    }
+                    return Creator.builder()
+                            .executable(constructor)
+                            .parameters(parameters)
+                            .build();
+                });
+    }
+
+    /** Finds the {@link JsonCreator} which binds properties, if one exists. */
+    private Optional<Creator> findCreator(TypeElement typeElement) {
+        for (Element enclosed : typeElement.getEnclosedElements()) {
+            JsonCreator jsonCreator = enclosed.getAnnotation(JsonCreator.class);
+            if (jsonCreator == null
+                    || jsonCreator.mode() == JsonCreator.Mode.DELEGATING
+                    || jsonCreator.mode() == JsonCreator.Mode.DISABLED) {
+                continue;
+            }
+            boolean staticFactory = enclosed.getKind() == ElementKind.METHOD
+                    && enclosed.getModifiers().contains(Modifier.STATIC);
+            if (enclosed.getKind() != ElementKind.CONSTRUCTOR && !staticFactory) {
+                messager.printMessage(
+                        Kind.ERROR, "Creators must be constructors or static factory methods", enclosed);
+                continue;
+            }
+            if (enclosed.getModifiers().contains(Modifier.PRIVATE)) {
+                messager.printMessage(Kind.ERROR, "Creators must be accessible from the same package", enclosed);
+                continue;
+            }
+            ExecutableElement executableElement = (ExecutableElement) enclosed;
+            List<BoundProperty> parameters = new ArrayList<>();
+            for (VariableElement parameter : executableElement.getParameters()) {
+                JsonProperty property = parameter.getAnnotation(JsonProperty.class);
+                if (property == null) {
+                    break;
                 }
-            } catch (RuntimeException e) {
+                parameters.add(BoundProperty.builder()
+                        .name(PropertyNames.name(property, parameter))
+                        .type(TypeName.get(parameter.asType()))
+                        .build());
+            }
+            if (parameters.size() == executableElement.getParameters().size()) {
+                return Optional.of(Creator.builder()
+                        .executable(executableElement)
+                        .parameters(parameters)
+                        .build());
+            }
+            // Default mode creators which aren't fully annotated are delegating creators
+            if (jsonCreator.mode() == JsonCreator.Mode.PROPERTIES) {
                 messager.printMessage(
-                        Kind.ERROR, "Failed to generate instrumented class: " + Throwables.getStackTraceAsString(e));
+                        Kind.ERROR, "Property based creator parameters must be annotated with @JsonProperty", enclosed);
             }
         }
-        return false;
+        return Optional.empty();
     }
 }
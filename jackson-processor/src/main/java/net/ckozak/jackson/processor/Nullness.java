@@ -0,0 +1,125 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor;
+
+import com.google.common.collect.ImmutableSet;
+import java.lang.annotation.ElementType;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Reads nullness annotations on properties. Annotations are matched by simple name, which covers JSR-305, the
+ * Checker Framework, JSpecify and similar libraries without depending on any of them.
+ */
+final class Nullness {
+    private static final ImmutableSet<String> NON_NULL = ImmutableSet.of("Nonnull", "NonNull");
+    private static final ImmutableSet<String> NULLABLE = ImmutableSet.of("Nullable", "CheckForNull");
+    private static final String NULL_MARKED = "NullMarked";
+    private static final String NULL_UNMARKED = "NullUnmarked";
+    private static final String TYPE_QUALIFIER_DEFAULT = "TypeQualifierDefault";
+
+    /**
+     * Returns true if values of the property read from {@code element} are declared to never be null. Properties
+     * without annotations are non-null within JSpecify {@code @NullMarked} code, and when an enclosing type or package
+     * applies a JSR-305 {@code @TypeQualifierDefault} for {@code @Nonnull} to methods or fields.
+     */
+    static boolean isNonNull(Element element, TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return false;
+        }
+        Optional<Boolean> declared =
+                declared(element.getAnnotationMirrors()).or(() -> declared(type.getAnnotationMirrors()));
+        if (declared.isPresent()) {
+            return declared.get();
+        }
+        ElementType target = element.getKind() == ElementKind.FIELD ? ElementType.FIELD : ElementType.METHOD;
+        // The closest enclosing type, package or module which sets a default applies
+        Element enclosing = element.getEnclosingElement();
+        while (enclosing != null) {
+            for (AnnotationMirror mirror : enclosing.getAnnotationMirrors()) {
+                String name = simpleName(mirror);
+                if (name.equals(NULL_MARKED) || isNonNullDefault(mirror, target)) {
+                    return true;
+                }
+                if (name.equals(NULL_UNMARKED)) {
+                    return false;
+                }
+            }
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return false;
+    }
+
+    /** Returns whether the annotations declare the value non-null, or empty if they don't describe nullness. */
+    private static Optional<Boolean> declared(List<? extends AnnotationMirror> mirrors) {
+        for (AnnotationMirror mirror : mirrors) {
+            String name = simpleName(mirror);
+            if (NON_NULL.contains(name)) {
+                return Optional.of(true);
+            }
+            if (NULLABLE.contains(name)) {
+                return Optional.of(false);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Returns true for JSR-305 style default annotations which apply {@code @Nonnull} to the target. */
+    private static boolean isNonNullDefault(AnnotationMirror mirror, ElementType target) {
+        Element annotationType = mirror.getAnnotationType().asElement();
+        boolean nonNull = false;
+        boolean applies = false;
+        for (AnnotationMirror meta : annotationType.getAnnotationMirrors()) {
+            String name = simpleName(meta);
+            nonNull |= NON_NULL.contains(name);
+            if (name.equals(TYPE_QUALIFIER_DEFAULT)) {
+                applies = targets(meta).contains(target.name());
+            }
+        }
+        return nonNull && applies;
+    }
+
+    private static ImmutableSet<String> targets(AnnotationMirror typeQualifierDefault) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                typeQualifierDefault.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                Object value = entry.getValue().getValue();
+                List<?> values = value instanceof List ? (List<?>) value : List.of(entry.getValue());
+                return values.stream()
+                        .map(item -> ((AnnotationValue) item).getValue())
+                        .filter(VariableElement.class::isInstance)
+                        .map(constant -> ((VariableElement) constant).getSimpleName().toString())
+                        .collect(ImmutableSet.toImmutableSet());
+            }
+        }
+        return ImmutableSet.of();
+    }
+
+    private static String simpleName(AnnotationMirror mirror) {
+        return mirror.getAnnotationType().asElement().getSimpleName().toString();
+    }
+
+    private Nullness() {}
+}
@@ -18,7 +18,10 @@ package net.ckozak.jackson.processor;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.squareup.javapoet.TypeName;
 import java.util.Objects;
+import java.util.Optional;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.VariableElement;
 
@@ -27,7 +30,7 @@ final class PropertyNames {
     static String name(JsonProperty property, ExecutableElement method) {
         String propertyValue = property.value();
         if (Objects.equals(JsonProperty.USE_DEFAULT_NAME, propertyValue)) {
-            return method.getSimpleName().toString();
+            return implicitName(method);
         }
         return propertyValue;
     }
@@ -43,10 +46,81 @@ final class PropertyNames {
     static String name(JsonGetter property, ExecutableElement method) {
         String propertyValue = property.value();
         if (Objects.equals(JsonProperty.USE_DEFAULT_NAME, propertyValue)) {
-            return method.getSimpleName().toString();
+            return implicitName(method);
         }
         return propertyValue;
     }
 
+    static String name(JsonSetter property, ExecutableElement method) {
+        String propertyValue = property.value();
+        if (Objects.equals(JsonProperty.USE_DEFAULT_NAME, propertyValue)) {
+            return implicitName(method);
+        }
+        return propertyValue;
+    }
+
+    /**
+     * Returns the property name bound by a {@link com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder}
+     * method, either from annotations or by removing the {@code withPrefix}.
+     */
+    static Optional<String> builderPropertyName(ExecutableElement method, String withPrefix) {
+        JsonProperty property = method.getAnnotation(JsonProperty.class);
+        if (property != null) {
+            return Optional.of(name(property, method));
+        }
+        JsonSetter setter = method.getAnnotation(JsonSetter.class);
+        if (setter != null) {
+            return Optional.of(name(setter, method));
+        }
+        String methodName = method.getSimpleName().toString();
+        if (methodName.length() > withPrefix.length() && methodName.startsWith(withPrefix)) {
+            return Optional.of(decapitalize(methodName.substring(withPrefix.length())));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the name jackson uses for a property method before renaming, removing the {@code get}, {@code is} or
+     * {@code set} prefix when present.
+     */
+    static String implicitName(ExecutableElement method) {
+        String methodName = method.getSimpleName().toString();
+        if (method.getParameters().size() == 1) {
+            return withoutPrefix(methodName, "set").orElse(methodName);
+        }
+        TypeName returnType = TypeName.get(method.getReturnType());
+        boolean isBoolean = TypeName.BOOLEAN.equals(returnType) || TypeName.BOOLEAN.box().equals(returnType);
+        return withoutPrefix(methodName, "get")
+                .or(() -> isBoolean ? withoutPrefix(methodName, "is") : Optional.empty())
+                .orElse(methodName);
+    }
+
+    private static Optional<String> withoutPrefix(String methodName, String prefix) {
+        if (methodName.length() > prefix.length() && methodName.startsWith(prefix)) {
+            return Optional.of(decapitalize(methodName.substring(prefix.length())));
+        }
+        return Optional.empty();
+    }
+
+    /** Returns the Immutables attribute name of an accessor, using the default {@code get*} style. */
+    static String attributeName(ExecutableElement accessor) {
+        String methodName = accessor.getSimpleName().toString();
+        if (methodName.length() > 3 && methodName.startsWith("get") && Character.isUpperCase(methodName.charAt(3))) {
+            return decapitalize(methodName.substring(3));
+        }
+        return methodName;
+    }
+
+    /** Lower-cases leading upper-case characters, matching jackson builder method name mangling. */
+    private static String decapitalize(String name) {
+        StringBuilder builder = new StringBuilder(name.length());
+        int index = 0;
+        while (index < name.length() && Character.isUpperCase(name.charAt(index))) {
+            builder.append(Character.toLowerCase(name.charAt(index)));
+            index++;
+        }
+        return builder.append(name, index, name.length()).toString();
+    }
+
     private PropertyNames() {}
 }
@@ -0,0 +1,89 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+
+/**
+ * Describes record types. The processor is built for java 11, so records are identified by the names of their
+ * element kinds rather than {@code ElementKind.RECORD}, which only exists on java 16 or newer.
+ */
+final class Records {
+    private static final String RECORD = "RECORD";
+    private static final String RECORD_COMPONENT = "RECORD_COMPONENT";
+
+    static boolean isRecord(Element element) {
+        return element.getKind().name().equals(RECORD);
+    }
+
+    /** Returns the accessor methods of the record components, in declaration order. */
+    static List<ExecutableElement> accessors(TypeElement record) {
+        List<ExecutableElement> methods = ElementFilter.methodsIn(record.getEnclosedElements());
+        List<ExecutableElement> accessors = new ArrayList<>();
+        for (Element enclosed : record.getEnclosedElements()) {
+            if (!enclosed.getKind().name().equals(RECORD_COMPONENT)) {
+                continue;
+            }
+            methods.stream()
+                    .filter(method -> method.getParameters().isEmpty()
+                            && !method.getModifiers().contains(Modifier.STATIC)
+                            && method.getSimpleName().contentEquals(enclosed.getSimpleName()))
+                    .findFirst()
+                    .ifPresent(accessors::add);
+        }
+        return accessors;
+    }
+
+    /** Returns the canonical constructor, which takes each record component in declaration order. */
+    static Optional<ExecutableElement> canonicalConstructor(Types types, TypeElement record) {
+        List<ExecutableElement> accessors = accessors(record);
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(record.getEnclosedElements())) {
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            if (parameters.size() != accessors.size()) {
+                continue;
+            }
+            boolean canonical = true;
+            for (int i = 0; i < parameters.size() && canonical; i++) {
+                canonical = types.isSameType(parameters.get(i).asType(), accessors.get(i).getReturnType());
+            }
+            if (canonical) {
+                return Optional.of(constructor);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Returns true for record components and their fields, which are serialized using the accessors. */
+    static boolean isComponent(Element element) {
+        return element.getKind().name().equals(RECORD_COMPONENT)
+                || (isRecord(element.getEnclosingElement())
+                        && element.getKind() == ElementKind.FIELD
+                        && !element.getModifiers().contains(Modifier.STATIC));
+    }
+
+    private Records() {}
+}
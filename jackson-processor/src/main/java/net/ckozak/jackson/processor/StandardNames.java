@@ -21,6 +21,12 @@ public final class StandardNames {
     public static final String GENERATOR = "generator";
     public static final String VALUE = "value";
     public static final String PROVIDER = "provider";
+    public static final String SINK = "sink";
+    public static final String PARSER = "parser";
+    public static final String CONTEXT = "context";
+    public static final String TYPE = "type";
+    public static final String DEFAULT_VALUE = "DEFAULT_VALUE";
+    public static final String JSON_VALUE = "jsonValue";
 
     private StandardNames() {}
 }
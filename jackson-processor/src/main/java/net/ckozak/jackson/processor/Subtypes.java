@@ -0,0 +1,184 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.squareup.javapoet.ClassName;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+import net.ckozak.jackson.processor.gen.ser.PolymorphicType;
+import net.ckozak.jackson.processor.gen.ser.Subtype;
+
+/** Discovers the subtypes of polymorphic types from {@link JsonSubTypes} and sealed type declarations. */
+public final class Subtypes {
+    /** Sealed types are only available when running on java 17 or newer. */
+    private static final Optional<Method> GET_PERMITTED_SUBCLASSES = permittedSubclassesMethod();
+
+    /**
+     * Returns true if serialization of {@code typeElement} is dispatched to the generated serializers of its
+     * subtypes, rather than writing the properties of {@code typeElement}.
+     */
+    public static boolean isDispatched(TypeElement typeElement) {
+        return typeElement.getAnnotation(JacksonProcessor.class) != null
+                && typeElement.getTypeParameters().isEmpty()
+                && (typeElement.getKind() == ElementKind.INTERFACE
+                        || typeElement.getModifiers().contains(Modifier.ABSTRACT))
+                && (typeElement.getAnnotation(JsonTypeInfo.class) != null
+                        || typeElement.getAnnotation(JsonSubTypes.class) != null
+                        || !permittedSubclasses(typeElement).isEmpty());
+    }
+
+    public static PolymorphicType polymorphicType(Elements elements, TypeElement typeElement) {
+        JsonTypeInfo typeInfo = typeElement.getAnnotation(JsonTypeInfo.class);
+        // Other inclusion mechanisms are left to the TypeSerializer
+        boolean typeIdProperty = typeInfo != null
+                && typeInfo.include() == JsonTypeInfo.As.PROPERTY
+                && (typeInfo.use() == JsonTypeInfo.Id.NAME || typeInfo.use() == JsonTypeInfo.Id.CLASS);
+        PolymorphicType.Builder builder = PolymorphicType.builder();
+        if (typeIdProperty) {
+            String property = typeInfo.property();
+            builder.typeIdKind(typeInfo.use())
+                    .typeProperty(property.isEmpty() ? typeInfo.use().getDefaultPropertyName() : property);
+        }
+        Map<TypeElement, Optional<String>> subtypes = new LinkedHashMap<>();
+        jsonSubTypes(typeElement).forEach(subtypes::putIfAbsent);
+        permittedSubclasses(typeElement).forEach(subtype -> subtypes.putIfAbsent(subtype, Optional.empty()));
+        String packageName = elements.getPackageOf(typeElement).getQualifiedName().toString();
+        subtypes.forEach((subtype, explicitName) -> {
+            if (subtype.getAnnotation(JacksonProcessor.class) == null
+                    || (subtype.getKind() != ElementKind.CLASS && !Records.isRecord(subtype))
+                    || subtype.getModifiers().contains(Modifier.ABSTRACT)
+                    || !subtype.getTypeParameters().isEmpty()
+                    || !isAccessible(elements, subtype, packageName)) {
+                // Handled by the serializer jackson finds for the runtime type
+                return;
+            }
+            String subtypePackage = elements.getPackageOf(subtype).getQualifiedName().toString();
+            Subtype.Builder subtypeBuilder = Subtype.builder()
+                    .type(ClassName.get(subtype))
+                    .serializer(ClassName.get(subtypePackage, subtype.getSimpleName() + "_GeneratedSerializer"));
+            if (typeIdProperty) {
+                subtypeBuilder.typeId(typeInfo.use() == JsonTypeInfo.Id.CLASS
+                        ? elements.getBinaryName(subtype).toString()
+                        : explicitName.orElseGet(() -> typeName(elements, subtype)));
+            }
+            builder.addSubtypes(subtypeBuilder.build());
+        });
+        return builder.build();
+    }
+
+    /** Matches the default type id jackson uses for {@link JsonTypeInfo.Id#NAME}. */
+    private static String typeName(Elements elements, TypeElement subtype) {
+        JsonTypeName typeName = subtype.getAnnotation(JsonTypeName.class);
+        if (typeName != null && !typeName.value().isEmpty()) {
+            return typeName.value();
+        }
+        String binaryName = elements.getBinaryName(subtype).toString();
+        return binaryName.substring(binaryName.lastIndexOf('.') + 1);
+    }
+
+    /** Returns the subtypes listed by {@link JsonSubTypes}, along with the type id name when one is given. */
+    @SuppressWarnings("unchecked")
+    private static Map<TypeElement, Optional<String>> jsonSubTypes(TypeElement typeElement) {
+        Map<TypeElement, Optional<String>> subtypes = new LinkedHashMap<>();
+        for (AnnotationMirror mirror : typeElement.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement())
+                    .getQualifiedName()
+                    .contentEquals(JsonSubTypes.class.getCanonicalName())) {
+                continue;
+            }
+            for (AnnotationValue type : (List<? extends AnnotationValue>) value(mirror, "value").orElseThrow()) {
+                AnnotationMirror typeMirror = (AnnotationMirror) type.getValue();
+                Optional<TypeElement> subtype = value(typeMirror, "value").flatMap(Subtypes::asTypeElement);
+                Optional<String> name = value(typeMirror, "name")
+                        .map(String.class::cast)
+                        .filter(value -> !value.isEmpty());
+                subtype.ifPresent(element -> subtypes.putIfAbsent(element, name));
+            }
+        }
+        return subtypes;
+    }
+
+    private static Optional<Object> value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return Optional.of(entry.getValue().getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<TypeElement> asTypeElement(Object type) {
+        if (type instanceof TypeMirror && ((TypeMirror) type).getKind() == TypeKind.DECLARED) {
+            return Optional.of((TypeElement) ((DeclaredType) type).asElement());
+        }
+        return Optional.empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<TypeElement> permittedSubclasses(TypeElement typeElement) {
+        List<TypeElement> subclasses = new ArrayList<>();
+        if (GET_PERMITTED_SUBCLASSES.isEmpty()) {
+            return subclasses;
+        }
+        try {
+            Object permitted = GET_PERMITTED_SUBCLASSES.get().invoke(typeElement);
+            for (TypeMirror subclass : (List<? extends TypeMirror>) permitted) {
+                asTypeElement(subclass).ifPresent(subclasses::add);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to read permitted subclasses of " + typeElement, e);
+        }
+        return subclasses;
+    }
+
+    private static Optional<Method> permittedSubclassesMethod() {
+        try {
+            return Optional.of(TypeElement.class.getMethod("getPermittedSubclasses"));
+        } catch (NoSuchMethodException expected) {
+            // Sealed types do not exist on older releases
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isAccessible(Elements elements, TypeElement typeElement, String packageName) {
+        if (elements.getPackageOf(typeElement).getQualifiedName().contentEquals(packageName)) {
+            return !typeElement.getModifiers().contains(Modifier.PRIVATE);
+        }
+        return typeElement.getModifiers().contains(Modifier.PUBLIC);
+    }
+
+    private Subtypes() {}
+}
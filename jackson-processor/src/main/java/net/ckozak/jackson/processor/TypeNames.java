@@ -17,13 +17,38 @@
 package net.ckozak.jackson.processor;
 
 import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeVariableName;
 import com.squareup.javapoet.WildcardTypeName;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Set;
 
 public final class TypeNames {
 
+    public static final ClassName OPTIONAL = ClassName.get(Optional.class);
+    public static final ClassName STRING = ClassName.get(String.class);
+    public static final ClassName BIG_INT = ClassName.get(BigInteger.class);
+    public static final ClassName BIG_DEC = ClassName.get(BigDecimal.class);
+
+    public static final ClassName LIST = ClassName.get(List.class);
+    public static final ClassName SET = ClassName.get(Set.class);
+    public static final ClassName COLLECTION = ClassName.get(Collection.class);
+    public static final ClassName MAP = ClassName.get(Map.class);
+
+    public static final ClassName OPTIONAL_INT = ClassName.get(OptionalInt.class);
+    public static final ClassName OPTIONAL_LONG = ClassName.get(OptionalLong.class);
+    public static final ClassName OPTIONAL_DOUBLE = ClassName.get(OptionalDouble.class);
+
     public static TypeName erased(TypeName input) {
         if (input instanceof ParameterizedTypeName) {
             ParameterizedTypeName parameterizedTypeName = (ParameterizedTypeName) input;
@@ -45,5 +70,82 @@ public final class TypeNames {
         return input;
     }
 
+    /** Returns true if {@code type} references a type variable, which must be resolved at runtime. */
+    public static boolean hasTypeVariable(TypeName type) {
+        if (type instanceof TypeVariableName) {
+            return true;
+        }
+        if (type instanceof ParameterizedTypeName) {
+            return ((ParameterizedTypeName) type).typeArguments.stream().anyMatch(TypeNames::hasTypeVariable);
+        }
+        if (type instanceof WildcardTypeName) {
+            WildcardTypeName wild = (WildcardTypeName) type;
+            return wild.upperBounds.stream().anyMatch(TypeNames::hasTypeVariable)
+                    || wild.lowerBounds.stream().anyMatch(TypeNames::hasTypeVariable);
+        }
+        if (type instanceof ArrayTypeName) {
+            return hasTypeVariable(((ArrayTypeName) type).componentType);
+        }
+        return false;
+    }
+
+    @SuppressWarnings("checkstyle:CyclomaticComplexity")
+    public static boolean isNumber(TypeName type) {
+        return TypeName.INT.equals(type)
+                || TypeName.FLOAT.equals(type)
+                || TypeName.LONG.equals(type)
+                || TypeName.SHORT.equals(type)
+                || TypeName.BYTE.equals(type)
+                || TypeName.DOUBLE.equals(type)
+                || TypeName.INT.box().equals(type)
+                || TypeName.FLOAT.box().equals(type)
+                || TypeName.LONG.box().equals(type)
+                || TypeName.SHORT.box().equals(type)
+                || TypeName.BYTE.box().equals(type)
+                || TypeName.DOUBLE.box().equals(type)
+                || BIG_INT.equals(type)
+                || BIG_DEC.equals(type);
+    }
+
+    public static boolean isNullableNumber(TypeName type) {
+        return !type.isPrimitive() && isNumber(type);
+    }
+
+    /**
+     * Returns the type held by a numeric optional, {@link OptionalInt}, {@link OptionalLong}, {@link OptionalDouble}
+     * or {@link Optional} of a {@link #isNumber(TypeName) number}, otherwise empty.
+     */
+    public static Optional<TypeName> optionalNumberValueType(TypeName type) {
+        if (OPTIONAL_INT.equals(type)) {
+            return Optional.of(TypeName.INT);
+        } else if (OPTIONAL_LONG.equals(type)) {
+            return Optional.of(TypeName.LONG);
+        } else if (OPTIONAL_DOUBLE.equals(type)) {
+            return Optional.of(TypeName.DOUBLE);
+        }
+        if (type instanceof ParameterizedTypeName) {
+            ParameterizedTypeName param = (ParameterizedTypeName) type;
+            if (OPTIONAL.equals(param.rawType) && isNumber(param.typeArguments.get(0))) {
+                return Optional.of(param.typeArguments.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the element type of a {@link List}, {@link Set} or {@link Collection}, otherwise empty. Wildcard
+     * elements are not supported.
+     */
+    public static Optional<TypeName> collectionElementType(TypeName type) {
+        if (type instanceof ParameterizedTypeName) {
+            ParameterizedTypeName param = (ParameterizedTypeName) type;
+            if ((LIST.equals(param.rawType) || SET.equals(param.rawType) || COLLECTION.equals(param.rawType))
+                    && !(param.typeArguments.get(0) instanceof WildcardTypeName)) {
+                return Optional.of(param.typeArguments.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
     private TypeNames() {}
 }
@@ -0,0 +1,50 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor.gen.deser;
+
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import java.util.List;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+@Value.Immutable
+public interface Deserializer {
+    String propertyName();
+
+    TypeName valueType();
+
+    /** Value used when the property is absent from the input. */
+    CodeBlock defaultValue();
+
+    /** Expression which reads the value at the current token. */
+    CodeBlock deserializerBlock();
+
+    List<FieldSpec> deserializerFields();
+
+    List<MethodSpec> deserializerMethods();
+
+    Optional<CodeBlock> resolverBlock();
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    class Builder extends ImmutableDeserializer.Builder {}
+}
@@ -0,0 +1,439 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor.gen.deser;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.annotation.processing.Generated;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import net.ckozak.jackson.processor.StandardNames;
+import net.ckozak.jackson.processor.TypeNames;
+
+public final class DeserializerGenerator {
+
+    private static final String TOKEN = "token";
+    private static final String NAME = "name";
+    private static final String BUILDER = "builder";
+
+    /**
+     * Generates a deserializer which reads each creator property into a local, then invokes the
+     * {@code creator} exactly once. Values of the {@code mutators} are buffered in locals as well, and applied to
+     * the created value when present. Properties in {@code ignoredProperties} are skipped.
+     */
+    public static JavaFile generateCreatorDeserializer(
+            String processorName,
+            Elements elements,
+            TypeElement typeElement,
+            ExecutableElement creator,
+            List<Deserializer> creatorProperties,
+            List<Mutator> mutators,
+            Set<String> ignoredProperties) {
+        TypeName targetType = TypeName.get(typeElement.asType());
+        CodeBlock.Builder locals = CodeBlock.builder();
+        ImmutableList.Builder<CodeBlock> cases = ImmutableList.builder();
+        List<CodeBlock> missingPrimitives = new ArrayList<>();
+        for (int i = 0; i < creatorProperties.size(); i++) {
+            Deserializer deserializer = creatorProperties.get(i);
+            String localName = localName(i);
+            locals.addStatement("$T $N = $L", deserializer.valueType(), localName, deserializer.defaultValue());
+            CodeBlock.Builder caseBlock = CodeBlock.builder()
+                    .add("case $S:\n", deserializer.propertyName())
+                    .indent()
+                    .addStatement("$N = $L", localName, deserializer.deserializerBlock());
+            if (deserializer.valueType().isPrimitive()) {
+                // Jackson reads the null value of missing primitives, which may fail
+                String presentName = "present" + i;
+                locals.addStatement("boolean $N = false", presentName);
+                caseBlock.addStatement("$N = true", presentName);
+                missingPrimitives.add(CodeBlock.of("!$N", presentName));
+            }
+            cases.add(caseBlock.addStatement("break").unindent().build());
+        }
+        CodeBlock.Builder applyMutators = CodeBlock.builder();
+        for (int i = 0; i < mutators.size(); i++) {
+            Mutator mutator = mutators.get(i);
+            Deserializer deserializer = mutator.deserializer();
+            String localName = localName(creatorProperties.size() + i);
+            String presentName = "present" + (creatorProperties.size() + i);
+            locals.addStatement("$T $N = $L", deserializer.valueType(), localName, deserializer.defaultValue())
+                    .addStatement("boolean $N = false", presentName);
+            cases.add(CodeBlock.builder()
+                    .add("case $S:\n", deserializer.propertyName())
+                    .indent()
+                    .addStatement("$N = $L", localName, deserializer.deserializerBlock())
+                    .addStatement("$N = true", presentName)
+                    .addStatement("break")
+                    .unindent()
+                    .build());
+            applyMutators.beginControlFlow("if ($N)", presentName);
+            if (mutator.kind() == Mutator.Kind.FIELD) {
+                applyMutators.addStatement("$N.$N = $N", StandardNames.VALUE, mutator.memberName(), localName);
+            } else {
+                applyMutators.addStatement("$N.$N($N)", StandardNames.VALUE, mutator.memberName(), localName);
+            }
+            applyMutators.endControlFlow();
+        }
+        CodeBlock.Builder afterProperties = CodeBlock.builder();
+        if (!missingPrimitives.isEmpty()) {
+            afterProperties
+                    .beginControlFlow("if ($L)", CodeBlock.join(missingPrimitives, " || "))
+                    .addStatement("_verifyNullForPrimitive($N)", StandardNames.CONTEXT)
+                    .endControlFlow();
+        }
+        CodeBlock result = invokeCreator(targetType, creator, creatorProperties.size());
+        if (!mutators.isEmpty()) {
+            afterProperties
+                    .addStatement("$T $N = $L", targetType, StandardNames.VALUE, result)
+                    .add(applyMutators.build());
+            result = CodeBlock.of("$N", StandardNames.VALUE);
+        }
+        List<Deserializer> deserializers = ImmutableList.<Deserializer>builder()
+                .addAll(creatorProperties)
+                .addAll(deserializers(mutators, Optional.empty()))
+                .build();
+        TypeSpec.Builder specBuilder = deserializerBuilder(processorName, typeElement, deserializers)
+                .addMethod(deserializeMethod(targetType)
+                        .addCode(readObject(
+                                targetType,
+                                locals.build(),
+                                cases.build(),
+                                ignoredProperties,
+                                unknownProperty(targetType),
+                                afterProperties.build(),
+                                result))
+                        .build());
+        return build(elements, typeElement, specBuilder, deserializers);
+    }
+
+    /**
+     * Generates a deserializer which instantiates the bean using its no-argument constructor, then applies each
+     * {@link Mutator} directly as properties are read. Properties in {@code ignoredProperties} are skipped, other
+     * unknown properties are passed to the {@code anySetter} if present.
+     */
+    public static JavaFile generateBeanDeserializer(
+            String processorName,
+            Elements elements,
+            TypeElement typeElement,
+            List<Mutator> mutators,
+            Optional<Mutator> anySetter,
+            Set<String> ignoredProperties) {
+        TypeName targetType = TypeName.get(typeElement.asType());
+        List<Deserializer> deserializers = deserializers(mutators, anySetter);
+        TypeSpec.Builder specBuilder = deserializerBuilder(processorName, typeElement, deserializers)
+                .addMethod(deserializeMethod(targetType)
+                        .addStatement(
+                                "return deserialize($N, $N, new $T())",
+                                StandardNames.PARSER,
+                                StandardNames.CONTEXT,
+                                targetType)
+                        .build())
+                .addMethod(deserializeMethod(targetType)
+                        .addParameter(ParameterSpec.builder(targetType, StandardNames.VALUE)
+                                .build())
+                        .addCode(readObject(
+                                targetType,
+                                CodeBlock.of(""),
+                                mutatorCases(mutators, StandardNames.VALUE),
+                                ignoredProperties,
+                                anySetter
+                                        .map(setter -> anyProperty(setter, StandardNames.VALUE))
+                                        .orElseGet(() -> unknownProperty(targetType)),
+                                CodeBlock.of(""),
+                                CodeBlock.of("$N", StandardNames.VALUE)))
+                        .build());
+        return build(elements, typeElement, specBuilder, deserializers);
+    }
+
+    /**
+     * Generates a deserializer which applies each {@link Mutator} to a builder created by {@code newBuilder} as
+     * properties are read, then invokes {@code buildMethod} once. Properties in {@code ignoredProperties} are
+     * skipped, other unknown properties are passed to the {@code anySetter} of the builder if present.
+     */
+    public static JavaFile generateBuilderDeserializer(
+            String processorName,
+            Elements elements,
+            TypeElement typeElement,
+            TypeName builderType,
+            CodeBlock newBuilder,
+            String buildMethod,
+            List<Mutator> mutators,
+            Optional<Mutator> anySetter,
+            Set<String> ignoredProperties) {
+        TypeName targetType = TypeName.get(typeElement.asType());
+        List<Deserializer> deserializers = deserializers(mutators, anySetter);
+        TypeSpec.Builder specBuilder = deserializerBuilder(processorName, typeElement, deserializers)
+                .addMethod(deserializeMethod(targetType)
+                        .addCode(readObject(
+                                targetType,
+                                CodeBlock.builder()
+                                        .addStatement("$T $N = $L", builderType, BUILDER, newBuilder)
+                                        .build(),
+                                mutatorCases(mutators, BUILDER),
+                                ignoredProperties,
+                                anySetter
+                                        .map(setter -> anyProperty(setter, BUILDER))
+                                        .orElseGet(() -> unknownProperty(targetType)),
+                                CodeBlock.of(""),
+                                CodeBlock.of("$N.$N()", BUILDER, buildMethod)))
+                        .build());
+        return build(elements, typeElement, specBuilder, deserializers);
+    }
+
+    private static List<Deserializer> deserializers(List<Mutator> mutators, Optional<Mutator> anySetter) {
+        return Stream.concat(mutators.stream(), anySetter.stream())
+                .map(Mutator::deserializer)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /** Passes a property which isn't otherwise handled to the any setter of the {@code target}, along with its name. */
+    private static CodeBlock anyProperty(Mutator anySetter, String target) {
+        // Jackson ignores the value returned by any setters, including those of builders
+        return CodeBlock.builder()
+                .addStatement(
+                        "$N.$N($N, $L)",
+                        target,
+                        anySetter.memberName(),
+                        NAME,
+                        anySetter.deserializer().deserializerBlock())
+                .build();
+    }
+
+    /** Fails on a property which isn't otherwise handled, unless the context ignores unknown properties. */
+    private static CodeBlock unknownProperty(TypeName targetType) {
+        return CodeBlock.builder()
+                .addStatement(
+                        "handleUnknownProperty($N, $N, $T.class, $N)",
+                        StandardNames.PARSER,
+                        StandardNames.CONTEXT,
+                        TypeNames.erased(targetType),
+                        NAME)
+                .build();
+    }
+
+    private static ImmutableList<CodeBlock> mutatorCases(List<Mutator> mutators, String target) {
+        ImmutableList.Builder<CodeBlock> cases = ImmutableList.builder();
+        for (Mutator mutator : mutators) {
+            Deserializer deserializer = mutator.deserializer();
+            CodeBlock.Builder caseBlock =
+                    CodeBlock.builder().add("case $S:\n", deserializer.propertyName()).indent();
+            switch (mutator.kind()) {
+                case FIELD:
+                    caseBlock.addStatement(
+                            "$N.$N = $L", target, mutator.memberName(), deserializer.deserializerBlock());
+                    break;
+                case SETTER:
+                    caseBlock.addStatement(
+                            "$N.$N($L)", target, mutator.memberName(), deserializer.deserializerBlock());
+                    break;
+                case WITHER:
+                    caseBlock.addStatement(
+                            "$N = $N.$N($L)", target, target, mutator.memberName(), deserializer.deserializerBlock());
+                    break;
+            }
+            cases.add(caseBlock.addStatement("break").unindent().build());
+        }
+        return cases.build();
+    }
+
+    private static TypeSpec.Builder deserializerBuilder(
+            String processorName, TypeElement typeElement, List<Deserializer> deserializers) {
+        String className = typeElement.getSimpleName() + "_GeneratedDeserializer";
+        TypeName targetType = TypeName.get(typeElement.asType());
+
+        ImmutableList<FieldSpec> fieldSpecs = deserializers.stream()
+                .flatMap(deser -> deser.deserializerFields().stream())
+                .collect(ImmutableList.toImmutableList());
+
+        TypeSpec.Builder specBuilder = TypeSpec.classBuilder(className)
+                // A single originating element allows gradle to process the type in isolation
+                .addOriginatingElement(typeElement)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .superclass(ParameterizedTypeName.get(ClassName.get(StdDeserializer.class), targetType))
+                .addAnnotation(AnnotationSpec.builder(Generated.class)
+                        .addMember("value", "$S", processorName)
+                        .build())
+                .addFields(fieldSpecs)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addStatement("super($T.class)", TypeNames.erased(targetType))
+                        .build());
+
+        if (typeElement.getAnnotation(Deprecated.class) != null) {
+            specBuilder.addAnnotation(Deprecated.class);
+        }
+        return specBuilder;
+    }
+
+    private static MethodSpec.Builder deserializeMethod(TypeName targetType) {
+        return MethodSpec.methodBuilder("deserialize")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(targetType)
+                .addParameter(ParameterSpec.builder(JsonParser.class, StandardNames.PARSER)
+                        .build())
+                .addParameter(ParameterSpec.builder(DeserializationContext.class, StandardNames.CONTEXT)
+                        .build())
+                .addException(IOException.class);
+    }
+
+    /**
+     * Reads the current object, beginning at either the {@link JsonToken#START_OBJECT} or first
+     * {@link JsonToken#FIELD_NAME}, and returns {@code result} once the object has been consumed and
+     * {@code afterProperties} has run.
+     */
+    private static CodeBlock readObject(
+            TypeName targetType,
+            CodeBlock beforeProperties,
+            List<CodeBlock> cases,
+            Set<String> ignoredProperties,
+            CodeBlock unknownProperty,
+            CodeBlock afterProperties,
+            CodeBlock result) {
+        CodeBlock.Builder switchBody = CodeBlock.builder();
+        cases.forEach(switchBody::add);
+        for (String ignored : ignoredProperties) {
+            switchBody.add("case $S:\n", ignored);
+        }
+        if (!ignoredProperties.isEmpty()) {
+            switchBody
+                    .indent()
+                    .addStatement("$N.skipChildren()", StandardNames.PARSER)
+                    .addStatement("break")
+                    .unindent();
+        }
+        switchBody.add("default:\n").indent().add(unknownProperty).unindent();
+
+        return CodeBlock.builder()
+                .addStatement("$T $N = $N.currentToken()", JsonToken.class, TOKEN, StandardNames.PARSER)
+                .beginControlFlow("if ($N == $T.START_OBJECT)", TOKEN, JsonToken.class)
+                .addStatement("$N = $N.nextToken()", TOKEN, StandardNames.PARSER)
+                .nextControlFlow(
+                        "else if ($N != $T.FIELD_NAME && $N != $T.END_OBJECT)",
+                        TOKEN,
+                        JsonToken.class,
+                        TOKEN,
+                        JsonToken.class)
+                .addStatement(
+                        "return ($T) $N.handleUnexpectedToken($T.class, $N)",
+                        targetType,
+                        StandardNames.CONTEXT,
+                        TypeNames.erased(targetType),
+                        StandardNames.PARSER)
+                .endControlFlow()
+                .add(beforeProperties)
+                .beginControlFlow(
+                        "for (; $N == $T.FIELD_NAME; $N = $N.nextToken())",
+                        TOKEN,
+                        JsonToken.class,
+                        TOKEN,
+                        StandardNames.PARSER)
+                .addStatement("$T $N = $N.currentName()", String.class, NAME, StandardNames.PARSER)
+                .addStatement("$N.nextToken()", StandardNames.PARSER)
+                .beginControlFlow("switch ($N)", NAME)
+                .add(switchBody.build())
+                .endControlFlow()
+                .endControlFlow()
+                .add(afterProperties)
+                .addStatement("return $L", result)
+                .build();
+    }
+
+    private static JavaFile build(
+            Elements elements,
+            TypeElement typeElement,
+            TypeSpec.Builder specBuilder,
+            List<Deserializer> deserializers) {
+        String packageName =
+                elements.getPackageOf(typeElement).getQualifiedName().toString();
+
+        ImmutableList<MethodSpec> methodSpecs = deserializers.stream()
+                .flatMap(deser -> deser.deserializerMethods().stream())
+                .collect(ImmutableList.toImmutableList());
+
+        ImmutableList<CodeBlock> resolvers = deserializers.stream()
+                .flatMap(deser -> deser.resolverBlock().stream())
+                .filter(block -> !block.isEmpty())
+                .collect(ImmutableList.toImmutableList());
+
+        specBuilder.addMethods(methodSpecs);
+
+        if (!resolvers.isEmpty()) {
+            specBuilder
+                    .addSuperinterface(ResolvableDeserializer.class)
+                    .addMethod(MethodSpec.methodBuilder("resolve")
+                            .addModifiers(Modifier.PUBLIC)
+                            .addAnnotation(Override.class)
+                            .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+                                    // Provides codegen type safety
+                                    .addMember("value", "$S", "unchecked")
+                                    .build())
+                            .addParameter(ParameterSpec.builder(DeserializationContext.class, StandardNames.CONTEXT)
+                                    .build())
+                            .addException(JsonMappingException.class)
+                            .addCode(resolvers.stream().collect(CodeBlock.joining("", "", "")))
+                            .build());
+        }
+
+        return JavaFile.builder(packageName, specBuilder.build())
+                .skipJavaLangImports(true)
+                .indent("    ")
+                .build();
+    }
+
+    private static CodeBlock invokeCreator(TypeName targetType, ExecutableElement creator, int parameters) {
+        CodeBlock arguments = IntStream.range(0, parameters)
+                .mapToObj(index -> CodeBlock.of("$N", localName(index)))
+                .collect(CodeBlock.joining(", "));
+        if (creator.getKind() == ElementKind.CONSTRUCTOR) {
+            return CodeBlock.of("new $T($L)", targetType, arguments);
+        }
+        return CodeBlock.of(
+                "$T.$N($L)", TypeNames.erased(targetType), creator.getSimpleName().toString(), arguments);
+    }
+
+    private static String localName(int index) {
+        return "property" + index;
+    }
+
+    private DeserializerGenerator() {}
+}
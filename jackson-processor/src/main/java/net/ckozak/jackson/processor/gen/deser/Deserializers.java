@@ -0,0 +1,208 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor.gen.deser;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import java.io.IOException;
+import java.util.Optional;
+import javax.lang.model.element.Modifier;
+import net.ckozak.jackson.processor.StandardNames;
+import net.ckozak.jackson.processor.TypeNames;
+
+public final class Deserializers {
+
+    public static Deserializer deserializerFor(String fieldName, TypeName valueType, int index) {
+        // Mirrors the serializer naming, see Serializers.serializerFor
+        String methodName = "deserializeField" + index;
+        if (TypeNames.STRING.equals(valueType)) {
+            return Deserializer.builder()
+                    .propertyName(fieldName)
+                    .valueType(valueType)
+                    .defaultValue(CodeBlock.of("null"))
+                    .deserializerBlock(invoke(methodName))
+                    .addDeserializerMethods(deserializeMethod(methodName, valueType)
+                            .addStatement("$T token = $N.currentToken()", JsonToken.class, StandardNames.PARSER)
+                            .beginControlFlow("if (token == $T.VALUE_STRING)", JsonToken.class)
+                            .addStatement("return $N.getText()", StandardNames.PARSER)
+                            .nextControlFlow("else if (token == $T.VALUE_NULL)", JsonToken.class)
+                            .addStatement("return null")
+                            .nextControlFlow("else if (token.isScalarValue())")
+                            .addStatement("return $N.getValueAsString()", StandardNames.PARSER)
+                            .endControlFlow()
+                            .addStatement(
+                                    "return ($T) $N.handleUnexpectedToken($T.class, $N)",
+                                    valueType,
+                                    StandardNames.CONTEXT,
+                                    valueType,
+                                    StandardNames.PARSER)
+                            .build())
+                    .build();
+        }
+        if (valueType.isPrimitive() && (TypeNames.isNumber(valueType) || TypeName.BOOLEAN.equals(valueType))) {
+            // Primitives are held in unboxed locals and read inline.
+            return Deserializer.builder()
+                    .propertyName(fieldName)
+                    .valueType(valueType)
+                    .defaultValue(TypeName.BOOLEAN.equals(valueType) ? CodeBlock.of("false") : CodeBlock.of("0"))
+                    .deserializerBlock(numberValue(valueType))
+                    .build();
+        }
+        if (TypeNames.isNullableNumber(valueType)) {
+            return Deserializer.builder()
+                    .propertyName(fieldName)
+                    .valueType(valueType)
+                    .defaultValue(CodeBlock.of("null"))
+                    .deserializerBlock(invoke(methodName))
+                    .addDeserializerMethods(deserializeMethod(methodName, valueType)
+                            .beginControlFlow(
+                                    "if ($N.currentToken() == $T.VALUE_NULL)", StandardNames.PARSER, JsonToken.class)
+                            .addStatement("return null")
+                            .endControlFlow()
+                            .addStatement("return $L", numberValue(valueType))
+                            .build())
+                    .build();
+        }
+        Optional<TypeName> optionalValueType = TypeNames.optionalNumberValueType(valueType);
+        if (optionalValueType.isPresent()) {
+            ClassName rawOptionalType = (ClassName) TypeNames.erased(valueType);
+            return Deserializer.builder()
+                    .propertyName(fieldName)
+                    .valueType(valueType)
+                    .defaultValue(CodeBlock.of("$T.empty()", rawOptionalType))
+                    .deserializerBlock(invoke(methodName))
+                    .addDeserializerMethods(deserializeMethod(methodName, valueType)
+                            .beginControlFlow(
+                                    "if ($N.currentToken() == $T.VALUE_NULL)", StandardNames.PARSER, JsonToken.class)
+                            .addStatement("return $T.empty()", rawOptionalType)
+                            .endControlFlow()
+                            .addStatement("return $T.of($L)", rawOptionalType, numberValue(optionalValueType.get()))
+                            .build())
+                    .build();
+        }
+        String deserializerFieldName = "deserializer" + index;
+        ClassName rawDeserializerType = ClassName.get(JsonDeserializer.class);
+        TypeName deserializerType = ParameterizedTypeName.get(rawDeserializerType, valueType.box());
+        return Deserializer.builder()
+                .propertyName(fieldName)
+                .valueType(valueType)
+                .defaultValue(valueType.isPrimitive() ? CodeBlock.of("0") : CodeBlock.of("null"))
+                .deserializerBlock(CodeBlock.of(
+                        "$N.currentToken() == $T.VALUE_NULL ? $N.getNullValue($N) : $N.deserialize($N, $N)",
+                        StandardNames.PARSER,
+                        JsonToken.class,
+                        deserializerFieldName,
+                        StandardNames.CONTEXT,
+                        deserializerFieldName,
+                        StandardNames.PARSER,
+                        StandardNames.CONTEXT))
+                .resolverBlock(CodeBlock.builder()
+                        // Narrows the deserializer type to the property type, see Serializers.serializerFor
+                        .addStatement(
+                                "$N = ($T) ($T) $N.findRootValueDeserializer($N.getTypeFactory()"
+                                        + ".constructType(new $T<$T>() {}))",
+                                deserializerFieldName,
+                                deserializerType,
+                                rawDeserializerType,
+                                StandardNames.CONTEXT,
+                                StandardNames.CONTEXT,
+                                TypeReference.class,
+                                valueType.box())
+                        .build())
+                .addDeserializerFields(FieldSpec.builder(deserializerType, deserializerFieldName)
+                        .addModifiers(Modifier.PRIVATE)
+                        .build())
+                .build();
+    }
+
+    /** Expression reading a non-null number at the current token, coercing values the way jackson would. */
+    @SuppressWarnings("checkstyle:CyclomaticComplexity")
+    private static CodeBlock numberValue(TypeName type) {
+        TypeName primitive = type.isBoxedPrimitive() ? type.unbox() : type;
+        if (TypeName.INT.equals(primitive)) {
+            return fastPath(JsonToken.VALUE_NUMBER_INT, "getIntValue", "_parseIntPrimitive");
+        } else if (TypeName.LONG.equals(primitive)) {
+            return fastPath(JsonToken.VALUE_NUMBER_INT, "getLongValue", "_parseLongPrimitive");
+        } else if (TypeName.DOUBLE.equals(primitive)) {
+            return fastPath(JsonToken.VALUE_NUMBER_FLOAT, "getDoubleValue", "_parseDoublePrimitive");
+        } else if (TypeName.FLOAT.equals(primitive)) {
+            return invoke("_parseFloatPrimitive");
+        } else if (TypeName.SHORT.equals(primitive)) {
+            return invoke("_parseShortPrimitive");
+        } else if (TypeName.BYTE.equals(primitive)) {
+            return invoke("_parseBytePrimitive");
+        } else if (TypeName.BOOLEAN.equals(primitive)) {
+            return invoke("_parseBooleanPrimitive");
+        } else if (TypeNames.BIG_DEC.equals(primitive)) {
+            return CodeBlock.of(
+                    "$N.currentToken().isNumeric() ? $N.getDecimalValue() : $N.readValue($N, $T.class)",
+                    StandardNames.PARSER,
+                    StandardNames.PARSER,
+                    StandardNames.CONTEXT,
+                    StandardNames.PARSER,
+                    primitive);
+        } else if (TypeNames.BIG_INT.equals(primitive)) {
+            return CodeBlock.of(
+                    "$N.currentToken() == $T.VALUE_NUMBER_INT ? $N.getBigIntegerValue() : $N.readValue($N, $T.class)",
+                    StandardNames.PARSER,
+                    JsonToken.class,
+                    StandardNames.PARSER,
+                    StandardNames.CONTEXT,
+                    StandardNames.PARSER,
+                    primitive);
+        }
+        throw new IllegalArgumentException("Not a number type: " + type);
+    }
+
+    private static CodeBlock fastPath(JsonToken token, String parserMethod, String fallbackMethod) {
+        return CodeBlock.of(
+                "$N.currentToken() == $T.$N ? $N.$N() : $L",
+                StandardNames.PARSER,
+                JsonToken.class,
+                token.name(),
+                StandardNames.PARSER,
+                parserMethod,
+                invoke(fallbackMethod));
+    }
+
+    private static CodeBlock invoke(String methodName) {
+        return CodeBlock.of("$N($N, $N)", methodName, StandardNames.PARSER, StandardNames.CONTEXT);
+    }
+
+    private static MethodSpec.Builder deserializeMethod(String methodName, TypeName valueType) {
+        return MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PRIVATE)
+                .returns(valueType)
+                .addParameter(ParameterSpec.builder(JsonParser.class, StandardNames.PARSER)
+                        .build())
+                .addParameter(ParameterSpec.builder(DeserializationContext.class, StandardNames.CONTEXT)
+                        .build())
+                .addException(IOException.class);
+    }
+
+    private Deserializers() {}
+}
@@ -0,0 +1,211 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor.gen.module;
+
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.ser.Serializers;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.processing.Generated;
+import javax.lang.model.element.Modifier;
+import net.ckozak.jackson.processor.StandardNames;
+
+/**
+ * Generates a jackson {@link Module} which registers generated serializers and deserializers by exact type, avoiding
+ * bean introspection for those types.
+ */
+public final class ModuleGenerator {
+    private static final String SERIALIZERS = "SERIALIZERS";
+    private static final String DESERIALIZERS = "DESERIALIZERS";
+    private static final String FACTORY = "factory";
+    private static final String CONFIG = "config";
+    private static final String BEAN_DESC = "beanDesc";
+    private static final TypeName CLASS = ParameterizedTypeName.get(
+            ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+    private static final TypeName SERIALIZER_FACTORY = ParameterizedTypeName.get(
+            ClassName.get(Function.class),
+            ClassName.get(JavaType.class),
+            ParameterizedTypeName.get(ClassName.get(JsonSerializer.class), WildcardTypeName.subtypeOf(Object.class)));
+    private static final TypeName DESERIALIZER_FACTORY = ParameterizedTypeName.get(
+            ClassName.get(Supplier.class),
+            ParameterizedTypeName.get(
+                    ClassName.get(JsonDeserializer.class), WildcardTypeName.subtypeOf(Object.class)));
+
+    public static JavaFile generateModule(
+            String processorName,
+            ClassName moduleName,
+            List<Registration> serializers,
+            List<Registration> deserializers) {
+        ClassName serializersName = moduleName.nestedClass("GeneratedSerializers");
+        ClassName deserializersName = moduleName.nestedClass("GeneratedDeserializers");
+        String context = "context";
+        TypeSpec spec = TypeSpec.classBuilder(moduleName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .superclass(Module.class)
+                .addAnnotation(AnnotationSpec.builder(Generated.class)
+                        .addMember("value", "$S", processorName)
+                        .build())
+                .addField(FieldSpec.builder(mapOf(SERIALIZER_FACTORY), SERIALIZERS)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("serializers()")
+                        .build())
+                .addField(FieldSpec.builder(mapOf(DESERIALIZER_FACTORY), DESERIALIZERS)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("deserializers()")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getModuleName")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .returns(String.class)
+                        .addStatement("return $S", moduleName.canonicalName())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("version")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .returns(Version.class)
+                        .addStatement("return $T.unknownVersion()", Version.class)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("setupModule")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .addParameter(ParameterSpec.builder(Module.SetupContext.class, context)
+                                .build())
+                        .addStatement("$N.addSerializers(new $T())", context, serializersName)
+                        .addStatement("$N.addDeserializers(new $T())", context, deserializersName)
+                        .build())
+                .addMethod(registry("serializers", SERIALIZER_FACTORY, serializers))
+                .addMethod(registry("deserializers", DESERIALIZER_FACTORY, deserializers))
+                .addType(TypeSpec.classBuilder(serializersName)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        // Superclasses given as a Class force names clashing with their nested classes to be
+                        // fully qualified, which includes Base itself
+                        .superclass(ClassName.get(Serializers.class).nestedClass("Base"))
+                        .addMethod(MethodSpec.methodBuilder("findSerializer")
+                                .addModifiers(Modifier.PUBLIC)
+                                .addAnnotation(Override.class)
+                                .returns(ParameterizedTypeName.get(
+                                        ClassName.get(JsonSerializer.class), WildcardTypeName.subtypeOf(Object.class)))
+                                .addParameter(ParameterSpec.builder(SerializationConfig.class, CONFIG)
+                                        .build())
+                                .addParameter(ParameterSpec.builder(JavaType.class, StandardNames.TYPE)
+                                        .build())
+                                .addParameter(ParameterSpec.builder(BeanDescription.class, BEAN_DESC)
+                                        .build())
+                                .addStatement(
+                                        "$T $N = $N.get($N.getRawClass())",
+                                        SERIALIZER_FACTORY,
+                                        FACTORY,
+                                        SERIALIZERS,
+                                        StandardNames.TYPE)
+                                .addStatement(
+                                        "return $N == null ? null : $N.apply($N)", FACTORY, FACTORY, StandardNames.TYPE)
+                                .build())
+                        .build())
+                .addType(TypeSpec.classBuilder(deserializersName)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .superclass(ClassName.get(Deserializers.class).nestedClass("Base"))
+                        .addMethod(MethodSpec.methodBuilder("findBeanDeserializer")
+                                .addModifiers(Modifier.PUBLIC)
+                                .addAnnotation(Override.class)
+                                .returns(ParameterizedTypeName.get(
+                                        ClassName.get(JsonDeserializer.class),
+                                        WildcardTypeName.subtypeOf(Object.class)))
+                                .addParameter(ParameterSpec.builder(JavaType.class, StandardNames.TYPE)
+                                        .build())
+                                .addParameter(ParameterSpec.builder(DeserializationConfig.class, CONFIG)
+                                        .build())
+                                .addParameter(ParameterSpec.builder(BeanDescription.class, BEAN_DESC)
+                                        .build())
+                                .addStatement(
+                                        "$T $N = $N.get($N.getRawClass())",
+                                        DESERIALIZER_FACTORY,
+                                        FACTORY,
+                                        DESERIALIZERS,
+                                        StandardNames.TYPE)
+                                .addStatement("return $N == null ? null : $N.get()", FACTORY, FACTORY)
+                                .build())
+                        .build())
+                .build();
+        return JavaFile.builder(moduleName.packageName(), spec)
+                .skipJavaLangImports(true)
+                .indent("    ")
+                .build();
+    }
+
+    /** Lookups use an {@link IdentityHashMap} on the exact raw class, subtypes are not handled. */
+    private static MethodSpec registry(String methodName, TypeName factoryType, List<Registration> registrations) {
+        TypeName mapType = mapOf(factoryType);
+        String registry = "registry";
+        CodeBlock.Builder body = CodeBlock.builder()
+                .addStatement("$T $N = new $T<>()", mapType, registry, IdentityHashMap.class);
+        for (Registration registration : registrations) {
+            if (registration.generic()) {
+                body.addStatement(
+                        "$N.put($T.class, $N -> new $T<>($N))",
+                        registry,
+                        registration.type(),
+                        StandardNames.TYPE,
+                        registration.generatedClass(),
+                        StandardNames.TYPE);
+            } else if (SERIALIZER_FACTORY.equals(factoryType)) {
+                body.addStatement(
+                        "$N.put($T.class, $N -> new $T())",
+                        registry,
+                        registration.type(),
+                        StandardNames.TYPE,
+                        registration.generatedClass());
+            } else {
+                body.addStatement(
+                        "$N.put($T.class, $T::new)", registry, registration.type(), registration.generatedClass());
+            }
+        }
+        return MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(mapType)
+                .addCode(body.build())
+                .addStatement("return $N", registry)
+                .build();
+    }
+
+    private static TypeName mapOf(TypeName factoryType) {
+        return ParameterizedTypeName.get(ClassName.get(Map.class), CLASS, factoryType);
+    }
+
+    private ModuleGenerator() {}
+}
@@ -0,0 +1,270 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor.gen.ser;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
+import java.io.IOException;
+import java.util.List;
+import javax.annotation.processing.Generated;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import net.ckozak.jackson.processor.StandardNames;
+
+/**
+ * Generates serializers for polymorphic types which check the exact runtime class against each known subtype, and
+ * call the generated serializer of the subtype directly. Type ids are pre-encoded and written inline when the
+ * {@link TypeSerializer} matches the {@link JsonTypeInfo} declaration. Other values are written using the serializer
+ * jackson finds for the runtime type, the same way jackson handles polymorphic values.
+ */
+public final class DispatchingSerializerGenerator {
+    private static final String GENERATOR = StandardNames.GENERATOR;
+    private static final String PROVIDER = StandardNames.PROVIDER;
+    private static final String VALUE = StandardNames.VALUE;
+    private static final String RUNTIME_TYPE = "runtimeType";
+    private static final String TYPE_SERIALIZER = "typeSerializer";
+    private static final String INLINE_TYPE_ID = "inlineTypeId";
+    private static final String TYPE_PROPERTY = "TYPE_PROPERTY";
+    private static final String GENERATED_SERIALIZER = "generatedSerializer";
+
+    public static JavaFile generateDispatchingSerializer(
+            String processorName, Elements elements, TypeElement typeElement, PolymorphicType polymorphicType) {
+        String packageName =
+                elements.getPackageOf(typeElement).getQualifiedName().toString();
+        String className = typeElement.getSimpleName() + "_GeneratedSerializer";
+        TypeName targetType = TypeName.get(typeElement.asType());
+        List<Subtype> subtypes = polymorphicType.subtypes();
+
+        TypeSpec.Builder specBuilder = TypeSpec.classBuilder(className)
+                .addOriginatingElement(typeElement)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .superclass(ParameterizedTypeName.get(ClassName.get(StdSerializer.class), targetType))
+                .addSuperinterface(ResolvableSerializer.class)
+                .addAnnotation(AnnotationSpec.builder(Generated.class)
+                        .addMember("value", "$S", processorName)
+                        .build());
+        if (typeElement.getAnnotation(Deprecated.class) != null) {
+            specBuilder.addAnnotation(Deprecated.class);
+        }
+        polymorphicType.typeProperty().ifPresent(typeProperty -> specBuilder.addField(FieldSpec.builder(
+                        SerializedString.class, TYPE_PROPERTY)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T($S)", SerializedString.class, typeProperty)
+                .build()));
+        for (int i = 0; i < subtypes.size(); i++) {
+            Subtype subtype = subtypes.get(i);
+            if (subtype.typeId().isPresent()) {
+                specBuilder.addField(FieldSpec.builder(SerializedString.class, typeIdName(i))
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T($S)", SerializedString.class, subtype.typeId().get())
+                        .build());
+            }
+        }
+        for (int i = 0; i < subtypes.size(); i++) {
+            specBuilder.addField(FieldSpec.builder(subtypes.get(i).serializer(), serializerName(i))
+                    .addModifiers(Modifier.PRIVATE)
+                    .build());
+        }
+
+        TypeName runtimeType =
+                ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+        CodeBlock.Builder serializeBlock =
+                CodeBlock.builder().addStatement("$T $N = $N.getClass()", runtimeType, RUNTIME_TYPE, VALUE);
+        CodeBlock.Builder serializeWithTypeBlock =
+                CodeBlock.builder().addStatement("$T $N = $N.getClass()", runtimeType, RUNTIME_TYPE, VALUE);
+        if (polymorphicType.typeProperty().isPresent()) {
+            // Pre-encoded type ids are only valid for the type serializer described by the annotations
+            serializeWithTypeBlock.addStatement(
+                    "boolean $N = $N.getTypeInclusion() == $T.PROPERTY"
+                            + " && $N.getTypeIdResolver().getMechanism() == $T.$N"
+                            + " && $N.getValue().equals($N.getPropertyName())",
+                    INLINE_TYPE_ID,
+                    TYPE_SERIALIZER,
+                    JsonTypeInfo.As.class,
+                    TYPE_SERIALIZER,
+                    JsonTypeInfo.Id.class,
+                    polymorphicType.typeIdKind().get().name(),
+                    TYPE_PROPERTY,
+                    TYPE_SERIALIZER);
+        }
+        CodeBlock.Builder resolveBlock = CodeBlock.builder();
+        for (int i = 0; i < subtypes.size(); i++) {
+            Subtype subtype = subtypes.get(i);
+            String serializerName = serializerName(i);
+            // Subtypes are only dispatched to when jackson uses their generated serializer
+            CodeBlock condition =
+                    CodeBlock.of("$N == $T.class && $N != null", RUNTIME_TYPE, subtype.type(), serializerName);
+            if (i == 0) {
+                serializeBlock.beginControlFlow("if ($L)", condition);
+                serializeWithTypeBlock.beginControlFlow("if ($L)", condition);
+            } else {
+                serializeBlock.nextControlFlow("else if ($L)", condition);
+                serializeWithTypeBlock.nextControlFlow("else if ($L)", condition);
+            }
+            serializeBlock.addStatement(
+                    "$N.serialize(($T) $N, $N, $N)", serializerName, subtype.type(), VALUE, GENERATOR, PROVIDER);
+            if (subtype.typeId().isPresent()) {
+                serializeWithTypeBlock
+                        .beginControlFlow("if ($N)", INLINE_TYPE_ID)
+                        .addStatement("$N.writeStartObject($N)", GENERATOR, VALUE)
+                        .addStatement("$N.writeFieldName($N)", GENERATOR, TYPE_PROPERTY)
+                        .addStatement("$N.writeString($N)", GENERATOR, typeIdName(i))
+                        .addStatement(
+                                "$N.$N(($T) $N, $N, $N)",
+                                serializerName,
+                                SerializerGenerator.SERIALIZE_PROPERTIES,
+                                subtype.type(),
+                                VALUE,
+                                GENERATOR,
+                                PROVIDER)
+                        .addStatement("$N.writeEndObject()", GENERATOR)
+                        .nextControlFlow("else");
+            }
+            serializeWithTypeBlock.addStatement(
+                    "$N.serializeWithType(($T) $N, $N, $N, $N)",
+                    serializerName,
+                    subtype.type(),
+                    VALUE,
+                    GENERATOR,
+                    PROVIDER,
+                    TYPE_SERIALIZER);
+            if (subtype.typeId().isPresent()) {
+                serializeWithTypeBlock.endControlFlow();
+            }
+            resolveBlock.addStatement(
+                    "$N = $N($N.findValueSerializer($T.class), $T.class)",
+                    serializerName,
+                    GENERATED_SERIALIZER,
+                    PROVIDER,
+                    subtype.type(),
+                    subtype.serializer());
+        }
+        if (!subtypes.isEmpty()) {
+            serializeBlock.nextControlFlow("else");
+            serializeWithTypeBlock.nextControlFlow("else");
+        }
+        serializeBlock.addStatement(
+                "$N.findValueSerializer($N).serialize($N, $N, $N)", PROVIDER, RUNTIME_TYPE, VALUE, GENERATOR, PROVIDER);
+        serializeWithTypeBlock.addStatement(
+                "$N.findValueSerializer($N).serializeWithType($N, $N, $N, $N)",
+                PROVIDER,
+                RUNTIME_TYPE,
+                VALUE,
+                GENERATOR,
+                PROVIDER,
+                TYPE_SERIALIZER);
+        if (!subtypes.isEmpty()) {
+            serializeBlock.endControlFlow();
+            serializeWithTypeBlock.endControlFlow();
+        }
+
+        specBuilder
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addStatement("super($T.class)", targetType)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("serialize")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .addParameter(ParameterSpec.builder(targetType, VALUE).build())
+                        .addParameter(ParameterSpec.builder(JsonGenerator.class, GENERATOR)
+                                .build())
+                        .addParameter(ParameterSpec.builder(SerializerProvider.class, PROVIDER)
+                                .build())
+                        .addException(IOException.class)
+                        .addCode(serializeBlock.build())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("serializeWithType")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .addParameter(ParameterSpec.builder(targetType, VALUE).build())
+                        .addParameter(ParameterSpec.builder(JsonGenerator.class, GENERATOR)
+                                .build())
+                        .addParameter(ParameterSpec.builder(SerializerProvider.class, PROVIDER)
+                                .build())
+                        .addParameter(ParameterSpec.builder(TypeSerializer.class, TYPE_SERIALIZER)
+                                .build())
+                        .addException(IOException.class)
+                        .addCode(serializeWithTypeBlock.build())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("resolve")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .addParameter(ParameterSpec.builder(SerializerProvider.class, PROVIDER)
+                                .build())
+                        .addException(JsonMappingException.class)
+                        .addCode(resolveBlock.build())
+                        .build())
+                .addMethod(generatedSerializer());
+
+        return JavaFile.builder(packageName, specBuilder.build())
+                .skipJavaLangImports(true)
+                .indent("    ")
+                .build();
+    }
+
+    /** Returns the serializer if it is the generated serializer of the subtype, otherwise null. */
+    private static MethodSpec generatedSerializer() {
+        TypeVariableName typeVariable = TypeVariableName.get("T");
+        String serializer = "serializer";
+        String type = StandardNames.TYPE;
+        return MethodSpec.methodBuilder(GENERATED_SERIALIZER)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addTypeVariable(typeVariable)
+                .returns(typeVariable)
+                .addParameter(ParameterSpec.builder(
+                                ParameterizedTypeName.get(
+                                        ClassName.get(JsonSerializer.class), WildcardTypeName.subtypeOf(Object.class)),
+                                serializer)
+                        .build())
+                .addParameter(ParameterSpec.builder(
+                                ParameterizedTypeName.get(ClassName.get(Class.class), typeVariable), type)
+                        .build())
+                .addStatement("return $N.isInstance($N) ? $N.cast($N) : null", type, serializer, type, serializer)
+                .build();
+    }
+
+    private static String typeIdName(int index) {
+        return "TYPE_ID_" + index;
+    }
+
+    private static String serializerName(int index) {
+        return "subtypeSerializer" + index;
+    }
+
+    private DispatchingSerializerGenerator() {}
+}
@@ -0,0 +1,40 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor.gen.ser;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import java.util.List;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/** An abstract type which is serialized by dispatching to the generated serializers of its subtypes. */
+@Value.Immutable
+public interface PolymorphicType {
+    /** Kind of type id declared by {@link JsonTypeInfo}, present when type ids are written as a property. */
+    Optional<JsonTypeInfo.Id> typeIdKind();
+
+    /** Name of the type id property, present along with the {@link #typeIdKind()}. */
+    Optional<String> typeProperty();
+
+    List<Subtype> subtypes();
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    class Builder extends ImmutablePolymorphicType.Builder {}
+}
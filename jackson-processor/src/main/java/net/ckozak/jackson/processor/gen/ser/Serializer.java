@@ -19,20 +19,69 @@ package net.ckozak.jackson.processor.gen.ser;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
 import java.util.List;
 import java.util.Optional;
 import org.immutables.value.Value;
 
 @Value.Immutable
 public interface Serializer {
+    /** Name of the property written before the {@link #serializerBlock()}, if any. */
+    Optional<String> fieldName();
+
+    /** Statement declaring a local for the property value, evaluated before the {@link #includeCondition()}. */
+    Optional<CodeBlock> valueDeclaration();
+
+    /** Condition which must hold for the property to be written, properties are always written if empty. */
+    Optional<CodeBlock> includeCondition();
+
     CodeBlock serializerBlock();
 
+    /**
+     * Properties of an unwrapped value, from {@link com.fasterxml.jackson.annotation.JsonUnwrapped}, written in place
+     * of this property when the {@link #includeCondition()} holds.
+     */
+    List<Serializer> unwrapped();
+
     List<FieldSpec> serializerFields();
 
     List<MethodSpec> serializerMethods();
 
     Optional<CodeBlock> resolverBlock();
 
+    /**
+     * Views the property is written for, from {@link com.fasterxml.jackson.annotation.JsonView}. Empty if the property
+     * isn't annotated, in which case it's written for views when default view inclusion is enabled.
+     */
+    Optional<List<TypeName>> views();
+
+    /**
+     * Whether the property is written regardless of the active view, ignoring {@link #views()}. Jackson writes
+     * {@link com.fasterxml.jackson.annotation.JsonAnyGetter} entries for every view.
+     */
+    @Value.Default
+    default boolean viewIndependent() {
+        return false;
+    }
+
+    /**
+     * Statement writing the value to a {@code Utf8Sink}, assuming the field name has already been written. Empty if
+     * the value can only be written by a generator.
+     */
+    Optional<CodeBlock> sinkBlock();
+
+    /** Static helpers used by the {@link #sinkBlock()}, only generated when the sink is. */
+    List<MethodSpec> sinkMethods();
+
+    /** Longest value the {@link #sinkBlock()} writes regardless of the value, excluding the field name. */
+    @Value.Default
+    default int sinkFixedSize() {
+        return 0;
+    }
+
+    /** Expression estimating the length of the value written by the {@link #sinkBlock()} beyond the fixed size. */
+    Optional<CodeBlock> sinkSizeEstimate();
+
     static Builder builder() {
         return new Builder();
     }
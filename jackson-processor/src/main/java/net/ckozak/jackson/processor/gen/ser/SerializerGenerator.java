@@ -17,8 +17,23 @@
 package net.ckozak.jackson.processor.gen.ser;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonWriteContext;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
 import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.google.common.collect.ImmutableList;
@@ -32,48 +47,146 @@ import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
 import javax.annotation.processing.Generated;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
+import net.ckozak.jackson.processor.StandardNames;
 import net.ckozak.jackson.processor.TypeNames;
+import net.ckozak.jackson.runtime.Utf8Sink;
 
 public final class SerializerGenerator {
+    private static final String GENERATOR = "generator";
+    private static final String RAW_FIELD_NAMES = "rawFieldNames";
+    private static final String IS_RAW_COMPATIBLE = "isRawCompatible";
+    private static final String WRITE_FIELD_NAME = "writeFieldName";
+    private static final String CONTEXTUAL_SERIALIZERS = "contextualSerializers";
+    private static final String WRITE_TO = "writeTo";
+    private static final String IS_SINK_COMPATIBLE = "isSinkCompatible";
+    private static final String ESTIMATE_SIZE = "estimateSize";
+    private static final String SIZE = "size";
+    private static final String VIEW_MASK = "viewMask";
+    // Set when a view is active and properties without views are included in every view
+    private static final int DEFAULT_VIEW_BIT = 1;
+    private static final int MAX_VIEWS = 31;
+    static final String SERIALIZE_PROPERTIES = "serializeProperties";
+    private static final TypeName WILDCARD_SERIALIZER =
+            ParameterizedTypeName.get(ClassName.get(JsonSerializer.class), WildcardTypeName.subtypeOf(Object.class));
 
     @SuppressWarnings("checkstyle:CyclomaticComplexity")
     public static JavaFile generateSerializer(
-            String processorName, Elements elements, TypeElement typeElement, List<Serializer> serializers) {
+            String processorName,
+            Elements elements,
+            TypeElement typeElement,
+            List<Serializer> serializers,
+            boolean rawFieldNames,
+            boolean utf8Sink,
+            boolean defaultInstance) {
         String packageName =
                 elements.getPackageOf(typeElement).getQualifiedName().toString();
         String className = typeElement.getSimpleName() + "_GeneratedSerializer";
         TypeName targetType = TypeName.get(typeElement.asType());
 
-        ImmutableList<FieldSpec> fieldSpecs = serializers.stream()
-                .flatMap(ser -> ser.serializerFields().stream())
+        // Field names are pre-encoded once rather than on each write
+        ImmutableList.Builder<FieldSpec> fieldSpecs = ImmutableList.builder();
+        if (defaultInstance) {
+            // Provides the default property values compared against for NON_DEFAULT inclusion
+            fieldSpecs.add(FieldSpec.builder(targetType, StandardNames.DEFAULT_VALUE)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("new $T()", targetType)
+                    .build());
+        }
+        // Unwrapped properties are written within the serializer of the enclosing type
+        ImmutableList<Serializer> allSerializers = flatten(serializers).collect(ImmutableList.toImmutableList());
+        // Each view is assigned a bit, the mask of the active view is computed once per call
+        boolean viewRestricted = allSerializers.stream().anyMatch(ser -> ser.views().isPresent());
+        ImmutableList<TypeName> views = allSerializers.stream()
+                .flatMap(ser -> ser.views().stream().flatMap(List::stream))
+                .distinct()
                 .collect(ImmutableList.toImmutableList());
+        if (views.size() > MAX_VIEWS) {
+            throw new IllegalStateException("At most " + MAX_VIEWS + " views are supported, found: " + views);
+        }
+        PropertyWrites writes = new PropertyWrites(rawFieldNames, utf8Sink, viewRestricted, views);
+        if (rawFieldNames) {
+            writes.serializeBlock.addStatement("boolean $N = $N($N)", RAW_FIELD_NAMES, IS_RAW_COMPATIBLE, GENERATOR);
+        }
+        if (viewRestricted) {
+            writes.serializeBlock.addStatement("int $N = $N($N)", VIEW_MASK, VIEW_MASK, StandardNames.PROVIDER);
+        }
+        serializers.forEach(serializer -> writes.add(serializer, false));
+        CodeBlock serializeBlock = writes.serializeBlock.build();
+        CodeBlock sinkBlock = CodeBlock.builder()
+                .addStatement("$N.writeStartObject()", StandardNames.SINK)
+                .add(writes.sinkBlock.build())
+                .addStatement("$N.writeEndObject()", StandardNames.SINK)
+                .build();
+        // Sizes which don't depend on the value are summed, starting from the braces
+        int fixedSize = 2 + writes.fixedSize;
+        CodeBlock estimateBlock = writes.estimateBlock.build();
+        fieldSpecs.addAll(writes.fieldSpecs.build());
+        allSerializers.forEach(ser -> fieldSpecs.addAll(ser.serializerFields()));
 
-        ImmutableList<MethodSpec> methodSpecs = serializers.stream()
+        // Shared helpers may be provided by several serializers
+        ImmutableList<MethodSpec> methodSpecs = allSerializers.stream()
                 .flatMap(ser -> ser.serializerMethods().stream())
+                .distinct()
                 .collect(ImmutableList.toImmutableList());
 
-        ImmutableList<CodeBlock> resolvers = serializers.stream()
+        ImmutableList<CodeBlock> resolvers = allSerializers.stream()
                 .flatMap(ser -> ser.resolverBlock().stream())
                 .filter(block -> !block.isEmpty())
                 .collect(ImmutableList.toImmutableList());
 
+        // The property count is only passed when every property is always written. Generators may use it to size
+        // the object header, although the 2.12 binary formats do not.
+        boolean fixedPropertyCount = serializers.stream()
+                .allMatch(ser -> ser.fieldName().isPresent()
+                        && !ser.includeCondition().isPresent()
+                        && !ser.views().isPresent());
+        CodeBlock writeStartObject = fixedPropertyCount
+                ? CodeBlock.of("$N.writeStartObject($N, $L)", GENERATOR, StandardNames.VALUE, serializers.size())
+                : CodeBlock.of("$N.writeStartObject($N)", GENERATOR, StandardNames.VALUE);
+
+        boolean generic = !typeElement.getTypeParameters().isEmpty();
         TypeSpec.Builder specBuilder = TypeSpec.classBuilder(className)
+                // A single originating element allows gradle to process the type in isolation
+                .addOriginatingElement(typeElement)
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addTypeVariables(typeElement.getTypeParameters().stream()
+                        .map(TypeVariableName::get)
+                        .collect(ImmutableList.toImmutableList()))
                 .superclass(ParameterizedTypeName.get(ClassName.get(StdSerializer.class), targetType))
                 .addAnnotation(AnnotationSpec.builder(Generated.class)
                         .addMember("value", "$S", processorName)
                         .build())
-                .addFields(fieldSpecs)
-                .addMethod(MethodSpec.constructorBuilder()
-                        .addModifiers(Modifier.PUBLIC)
-                        .addStatement("super($T.class)", TypeNames.erased(targetType))
-                        .build());
+                .addFields(fieldSpecs.build());
+        if (generic) {
+            // Type variables are resolved from the bindings of the type
+            specBuilder
+                    .addField(FieldSpec.builder(JavaType.class, StandardNames.TYPE)
+                            .addModifiers(Modifier.PRIVATE, Modifier.FINAL)
+                            .build())
+                    .addMethod(MethodSpec.constructorBuilder()
+                            .addModifiers(Modifier.PUBLIC)
+                            .addParameter(ParameterSpec.builder(JavaType.class, StandardNames.TYPE)
+                                    .build())
+                            .addStatement("super($N)", StandardNames.TYPE)
+                            .addStatement("this.$N = $N", StandardNames.TYPE, StandardNames.TYPE)
+                            .build());
+        } else {
+            specBuilder.addMethod(MethodSpec.constructorBuilder()
+                    .addModifiers(Modifier.PUBLIC)
+                    .addStatement("super($T.class)", TypeNames.erased(targetType))
+                    .build());
+        }
 
         if (typeElement.getAnnotation(Deprecated.class) != null) {
             specBuilder.addAnnotation(Deprecated.class);
@@ -88,14 +201,66 @@ public final class SerializerGenerator {
                         .addParameter(ParameterSpec.builder(SerializerProvider.class, "provider")
                                 .build())
                         .addException(IOException.class)
-                        .addStatement("$N.writeStartObject($N)", "generator", "value")
-                        .addCode(serializers.stream()
-                                .map(Serializer::serializerBlock)
-                                .collect(CodeBlock.joining("", "", "")))
-                        .addStatement("$N.writeEndObject()", "generator")
+                        .addCode(utf8Sink ? writeToSink() : CodeBlock.of(""))
+                        .addStatement("$L", writeStartObject)
+                        .addStatement(
+                                "$N($N, $N, $N)",
+                                SERIALIZE_PROPERTIES,
+                                StandardNames.VALUE,
+                                GENERATOR,
+                                StandardNames.PROVIDER)
+                        .addStatement("$N.writeEndObject()", GENERATOR)
+                        .build())
+                .addMethod(serializeWithType(targetType))
+                .addMethod(MethodSpec.methodBuilder(SERIALIZE_PROPERTIES)
+                        // Allows dispatching serializers to write the type id before the properties
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(ParameterSpec.builder(targetType, StandardNames.VALUE)
+                                .build())
+                        .addParameter(ParameterSpec.builder(JsonGenerator.class, GENERATOR)
+                                .build())
+                        .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                                .build())
+                        .addException(IOException.class)
+                        .addCode(serializeBlock)
                         .build())
                 .addMethods(methodSpecs);
 
+        if (viewRestricted) {
+            specBuilder.addMethod(viewMask(views));
+        }
+
+        if (utf8Sink) {
+            specBuilder
+                    .addMethod(MethodSpec.methodBuilder(WRITE_TO)
+                            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                            .addParameter(ParameterSpec.builder(targetType, StandardNames.VALUE)
+                                    .build())
+                            .addParameter(ParameterSpec.builder(Utf8Sink.class, StandardNames.SINK)
+                                    .build())
+                            .addCode(sinkBlock)
+                            .build())
+                    .addMethod(toByteArray(targetType))
+                    .addMethod(MethodSpec.methodBuilder(ESTIMATE_SIZE)
+                            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                            .returns(TypeName.INT)
+                            .addParameter(ParameterSpec.builder(targetType, StandardNames.VALUE)
+                                    .build())
+                            .addStatement("int $N = $L", SIZE, fixedSize)
+                            .addCode(estimateBlock)
+                            .addStatement("return $N", SIZE)
+                            .build())
+                    .addMethods(allSerializers.stream()
+                            .flatMap(ser -> ser.sinkMethods().stream())
+                            .distinct()
+                            .collect(ImmutableList.toImmutableList()))
+                    .addMethod(isSinkCompatible());
+        }
+
+        if (rawFieldNames) {
+            specBuilder.addMethod(isRawCompatible()).addMethod(writeFieldName());
+        }
+
         if (!resolvers.isEmpty()) {
             specBuilder
                     .addSuperinterface(ResolvableSerializer.class)
@@ -113,11 +278,552 @@ public final class SerializerGenerator {
                             .build());
         }
 
+        if (generic && !resolvers.isEmpty()) {
+            specBuilder
+                    .addSuperinterface(ContextualSerializer.class)
+                    .addField(FieldSpec.builder(
+                                    ParameterizedTypeName.get(
+                                            ClassName.get(ConcurrentMap.class),
+                                            ClassName.get(JavaType.class),
+                                            WILDCARD_SERIALIZER),
+                                    CONTEXTUAL_SERIALIZERS)
+                            .addModifiers(Modifier.PRIVATE, Modifier.FINAL)
+                            .initializer("new $T<>()", ConcurrentHashMap.class)
+                            .build())
+                    .addMethod(createContextual(ClassName.get(packageName, className)));
+        }
+
+        return JavaFile.builder(packageName, specBuilder.build())
+                .skipJavaLangImports(true)
+                .indent("    ")
+                .build();
+    }
+
+    /**
+     * Generates a serializer for a type with a {@link com.fasterxml.jackson.annotation.JsonValue} accessor, writing the
+     * scalar value in place of the object the way jackson's {@code JsonValueSerializer} does, without resolving a
+     * serializer for the value.
+     *
+     * @param serializer writes the value, from {@link Serializers#jsonValueFor}
+     */
+    public static JavaFile generateValueSerializer(
+            String processorName,
+            Elements elements,
+            TypeElement typeElement,
+            TypeName valueType,
+            Serializer serializer,
+            boolean utf8Sink) {
+        String packageName =
+                elements.getPackageOf(typeElement).getQualifiedName().toString();
+        String className = typeElement.getSimpleName() + "_GeneratedSerializer";
+        TypeName targetType = TypeName.get(typeElement.asType());
+        CodeBlock valueDeclaration = serializer.valueDeclaration().orElseThrow();
+        TypeSpec.Builder specBuilder = TypeSpec.classBuilder(className)
+                .addOriginatingElement(typeElement)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .superclass(ParameterizedTypeName.get(ClassName.get(StdSerializer.class), targetType))
+                .addAnnotation(AnnotationSpec.builder(Generated.class)
+                        .addMember("value", "$S", processorName)
+                        .build())
+                .addFields(serializer.serializerFields())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addStatement("super($T.class)", targetType)
+                        .build());
+        if (typeElement.getAnnotation(Deprecated.class) != null) {
+            specBuilder.addAnnotation(Deprecated.class);
+        }
+        specBuilder
+                .addMethod(MethodSpec.methodBuilder("serialize")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .addParameter(ParameterSpec.builder(targetType, StandardNames.VALUE)
+                                .build())
+                        .addParameter(ParameterSpec.builder(JsonGenerator.class, GENERATOR)
+                                .build())
+                        .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                                .build())
+                        .addException(IOException.class)
+                        .addCode(valueDeclaration)
+                        .addCode(serializer.serializerBlock())
+                        .build())
+                .addMethod(valueSerializeWithType(targetType, valueType, serializer));
+        if (!valueType.isPrimitive()) {
+            // Values are empty when the serializer of the value considers them empty
+            String jsonValue = StandardNames.JSON_VALUE;
+            specBuilder.addMethod(MethodSpec.methodBuilder("isEmpty")
+                    .addModifiers(Modifier.PUBLIC)
+                    .addAnnotation(Override.class)
+                    .returns(boolean.class)
+                    .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                            .build())
+                    .addParameter(ParameterSpec.builder(targetType, StandardNames.VALUE)
+                            .build())
+                    .addCode(valueDeclaration)
+                    .addStatement(
+                            TypeNames.STRING.equals(valueType)
+                                    ? CodeBlock.of("return $N == null || $N.isEmpty()", jsonValue, jsonValue)
+                                    : CodeBlock.of("return $N == null", jsonValue))
+                    .build());
+        }
+        specBuilder.addMethods(serializer.serializerMethods());
+        if (utf8Sink) {
+            int fixedSize = serializer.sinkFixedSize();
+            CodeBlock estimate = serializer.sinkSizeEstimate()
+                    .map(value -> fixedSize == 0 ? value : CodeBlock.of("$L + $L", fixedSize, value))
+                    .orElseGet(() -> CodeBlock.of("$L", fixedSize));
+            specBuilder
+                    .addMethod(MethodSpec.methodBuilder(WRITE_TO)
+                            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                            .addParameter(ParameterSpec.builder(targetType, StandardNames.VALUE)
+                                    .build())
+                            .addParameter(ParameterSpec.builder(Utf8Sink.class, StandardNames.SINK)
+                                    .build())
+                            .addCode(valueDeclaration)
+                            .addCode(serializer.sinkBlock().orElseThrow())
+                            .build())
+                    .addMethod(toByteArray(targetType))
+                    .addMethod(MethodSpec.methodBuilder(ESTIMATE_SIZE)
+                            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                            .returns(TypeName.INT)
+                            .addParameter(ParameterSpec.builder(targetType, StandardNames.VALUE)
+                                    .build())
+                            .addCode(valueDeclaration)
+                            .addStatement("return $L", estimate)
+                            .build())
+                    .addMethods(serializer.sinkMethods());
+        }
         return JavaFile.builder(packageName, specBuilder.build())
                 .skipJavaLangImports(true)
                 .indent("    ")
                 .build();
     }
 
+    /**
+     * Jackson writes type ids for values as scalars, wrapping the value when the type id can't be written as a
+     * property. Null values are written without a type id.
+     */
+    private static MethodSpec valueSerializeWithType(TypeName targetType, TypeName valueType, Serializer serializer) {
+        String typeSerializer = "typeSerializer";
+        String typeId = "typeId";
+        MethodSpec.Builder method = MethodSpec.methodBuilder("serializeWithType")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .addParameter(ParameterSpec.builder(targetType, StandardNames.VALUE).build())
+                .addParameter(ParameterSpec.builder(JsonGenerator.class, GENERATOR).build())
+                .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                        .build())
+                .addParameter(ParameterSpec.builder(TypeSerializer.class, typeSerializer)
+                        .build())
+                .addException(IOException.class)
+                .addCode(serializer.valueDeclaration().orElseThrow());
+        if (!valueType.isPrimitive()) {
+            method.beginControlFlow("if ($N == null)", StandardNames.JSON_VALUE)
+                    .addStatement("$N.defaultSerializeNull($N)", StandardNames.PROVIDER, GENERATOR)
+                    .addStatement("return")
+                    .endControlFlow();
+        }
+        return method.addStatement(
+                        "$T $N = $N.writeTypePrefix($N, $N.typeId($N, $T.VALUE_STRING))",
+                        WritableTypeId.class,
+                        typeId,
+                        typeSerializer,
+                        GENERATOR,
+                        typeSerializer,
+                        StandardNames.VALUE,
+                        JsonToken.class)
+                .addCode(serializer.serializerBlock())
+                .addStatement("$N.writeTypeSuffix($N, $N)", typeSerializer, GENERATOR, typeId)
+                .build();
+    }
+
+    /** Type ids are written by the {@link TypeSerializer}, which also starts and ends the object. */
+    private static MethodSpec serializeWithType(TypeName targetType) {
+        String typeSerializer = "typeSerializer";
+        String typeId = "typeId";
+        return MethodSpec.methodBuilder("serializeWithType")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .addParameter(ParameterSpec.builder(targetType, StandardNames.VALUE).build())
+                .addParameter(ParameterSpec.builder(JsonGenerator.class, GENERATOR).build())
+                .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                        .build())
+                .addParameter(ParameterSpec.builder(TypeSerializer.class, typeSerializer)
+                        .build())
+                .addException(IOException.class)
+                .addStatement(
+                        "$T $N = $N.writeTypePrefix($N, $N.typeId($N, $T.START_OBJECT))",
+                        WritableTypeId.class,
+                        typeId,
+                        typeSerializer,
+                        GENERATOR,
+                        typeSerializer,
+                        StandardNames.VALUE,
+                        JsonToken.class)
+                .addStatement(
+                        "$N($N, $N, $N)", SERIALIZE_PROPERTIES, StandardNames.VALUE, GENERATOR, StandardNames.PROVIDER)
+                .addStatement("$N.writeTypeSuffix($N, $N)", typeSerializer, GENERATOR, typeId)
+                .build();
+    }
+
+    /**
+     * Values are written to a {@link Utf8Sink} when the generator would produce the same output, the written bytes are
+     * copied into the generator as a single raw value.
+     */
+    private static CodeBlock writeToSink() {
+        String sink = StandardNames.SINK;
+        return CodeBlock.builder()
+                .beginControlFlow("if ($N($N, $N))", IS_SINK_COMPATIBLE, GENERATOR, StandardNames.PROVIDER)
+                .addStatement(
+                        "$T $N = new $T($N($N))",
+                        Utf8Sink.class,
+                        sink,
+                        Utf8Sink.class,
+                        ESTIMATE_SIZE,
+                        StandardNames.VALUE)
+                .addStatement("$N($N, $N)", WRITE_TO, StandardNames.VALUE, sink)
+                .addStatement("$N.writeRawValue($N)", GENERATOR, sink)
+                .addStatement("return")
+                .endControlFlow()
+                .build();
+    }
+
+    /**
+     * Writes the value without a generator into a buffer sized from the estimate, producing the same bytes as a
+     * default {@link com.fasterxml.jackson.databind.ObjectMapper}.
+     */
+    private static MethodSpec toByteArray(TypeName targetType) {
+        String sink = StandardNames.SINK;
+        return MethodSpec.methodBuilder("toByteArray")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(byte[].class)
+                .addParameter(ParameterSpec.builder(targetType, StandardNames.VALUE).build())
+                .addStatement(
+                        "$T $N = new $T($N($N))",
+                        Utf8Sink.class,
+                        sink,
+                        Utf8Sink.class,
+                        ESTIMATE_SIZE,
+                        StandardNames.VALUE)
+                .addStatement("$N($N, $N)", WRITE_TO, StandardNames.VALUE, sink)
+                .addStatement("return $N.toByteArray()", sink)
+                .build();
+    }
+
+    /** Bits of the view mask for which the property is written, jackson treats an empty list of views as none. */
+    private static int viewBits(Serializer serializer, List<TypeName> views) {
+        int bits = 0;
+        for (TypeName view : serializer.views().orElseGet(ImmutableList::of)) {
+            bits |= 1 << (views.indexOf(view) + 1);
+        }
+        return bits == 0 ? DEFAULT_VIEW_BIT : bits;
+    }
+
+    /**
+     * Matches the view checks of jackson's {@code BeanPropertyWriter}, a property is written when the active view is
+     * a subtype of one of its views. Properties without views are written unless
+     * {@link MapperFeature#DEFAULT_VIEW_INCLUSION} is disabled.
+     */
+    private static MethodSpec viewMask(List<TypeName> views) {
+        String view = "view";
+        String mask = "mask";
+        MethodSpec.Builder method = MethodSpec.methodBuilder(VIEW_MASK)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(int.class)
+                .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                        .build())
+                .addStatement("$T<?> $N = $N.getActiveView()", Class.class, view, StandardNames.PROVIDER)
+                .beginControlFlow("if ($N == null)", view)
+                .addStatement("return -1")
+                .endControlFlow()
+                .addStatement(
+                        "int $N = $N.isEnabled($T.DEFAULT_VIEW_INCLUSION) ? 0x$L : 0",
+                        mask,
+                        StandardNames.PROVIDER,
+                        MapperFeature.class,
+                        Integer.toHexString(DEFAULT_VIEW_BIT));
+        for (int i = 0; i < views.size(); i++) {
+            method.beginControlFlow("if ($T.class.isAssignableFrom($N))", views.get(i), view)
+                    .addStatement("$N |= 0x$L", mask, Integer.toHexString(1 << (i + 1)))
+                    .endControlFlow();
+        }
+        return method.addStatement("return $N", mask).build();
+    }
+
+    /**
+     * The sink writes values the way a default {@link UTF8JsonGenerator} does, and enum constants by name. Features
+     * which change either, and active views, are left to the generator.
+     */
+    private static MethodSpec isSinkCompatible() {
+        return MethodSpec.methodBuilder(IS_SINK_COMPATIBLE)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(boolean.class)
+                .addParameter(ParameterSpec.builder(JsonGenerator.class, GENERATOR).build())
+                .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                        .build())
+                .addStatement(
+                        "return $N.getClass() == $T.class && $N.getPrettyPrinter() == null"
+                                + " && $N.getCharacterEscapes() == null && $N.getHighestEscapedChar() == 0"
+                                + " && $N.isEnabled($T.QUOTE_FIELD_NAMES.mappedFeature())"
+                                + " && $N.isEnabled($T.WRITE_NAN_AS_STRINGS.mappedFeature())"
+                                + " && !$N.isEnabled($T.WRITE_NUMBERS_AS_STRINGS.mappedFeature())"
+                                + " && !$N.isEnabled($T.WRITE_ENUMS_USING_TO_STRING)"
+                                + " && !$N.isEnabled($T.WRITE_ENUMS_USING_INDEX)"
+                                + " && $N.getActiveView() == null",
+                        GENERATOR,
+                        UTF8JsonGenerator.class,
+                        GENERATOR,
+                        GENERATOR,
+                        GENERATOR,
+                        GENERATOR,
+                        JsonWriteFeature.class,
+                        GENERATOR,
+                        JsonWriteFeature.class,
+                        GENERATOR,
+                        JsonWriteFeature.class,
+                        StandardNames.PROVIDER,
+                        SerializationFeature.class,
+                        StandardNames.PROVIDER,
+                        SerializationFeature.class,
+                        StandardNames.PROVIDER)
+                .build();
+    }
+
+    /**
+     * Raw field names bypass the generators name handling, so they may only be used when the output is
+     * guaranteed to match what {@link JsonGenerator#writeFieldName(SerializableString)} would produce.
+     */
+    private static MethodSpec isRawCompatible() {
+        return MethodSpec.methodBuilder(IS_RAW_COMPATIBLE)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(boolean.class)
+                .addParameter(ParameterSpec.builder(JsonGenerator.class, GENERATOR).build())
+                .addStatement(
+                        "return $N.getClass() == $T.class && $N.getPrettyPrinter() == null"
+                                + " && $N.getCharacterEscapes() == null && $N.getHighestEscapedChar() == 0"
+                                + " && $N.isEnabled($T.QUOTE_FIELD_NAMES.mappedFeature())",
+                        GENERATOR,
+                        UTF8JsonGenerator.class,
+                        GENERATOR,
+                        GENERATOR,
+                        GENERATOR,
+                        GENERATOR,
+                        JsonWriteFeature.class)
+                .build();
+    }
+
+    private static MethodSpec writeFieldName() {
+        String name = "name";
+        String rawName = "rawName";
+        String status = "status";
+        return MethodSpec.methodBuilder(WRITE_FIELD_NAME)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(ParameterSpec.builder(JsonGenerator.class, GENERATOR).build())
+                .addParameter(ParameterSpec.builder(boolean.class, RAW_FIELD_NAMES).build())
+                .addParameter(ParameterSpec.builder(SerializedString.class, name).build())
+                .addParameter(ParameterSpec.builder(SerializedString.class, rawName).build())
+                .addException(IOException.class)
+                .beginControlFlow("if ($N)", RAW_FIELD_NAMES)
+                // Keep the write context in sync, the following value write emits the colon
+                .addStatement(
+                        "int $N = (($T) $N.getOutputContext()).writeFieldName($N.getValue())",
+                        status,
+                        JsonWriteContext.class,
+                        GENERATOR,
+                        name)
+                .beginControlFlow("if ($N == $T.STATUS_OK_AFTER_COMMA)", status, JsonWriteContext.class)
+                .addStatement("$N.writeRaw($N)", GENERATOR, rawName)
+                .addStatement("return")
+                .nextControlFlow("else if ($N == $T.STATUS_OK_AS_IS)", status, JsonWriteContext.class)
+                .addStatement("$N.writeRaw($N.getValue(), 1, $N.charLength() - 1)", GENERATOR, rawName, rawName)
+                .addStatement("return")
+                .endControlFlow()
+                .endControlFlow()
+                // Unexpected state, allow the generator to produce the appropriate failure
+                .addStatement("$N.writeFieldName($N)", GENERATOR, name)
+                .build();
+    }
+
+    /**
+     * Properties provide a fully resolved type, which may bind type variables that were unknown when this serializer
+     * was created. Serializers for each resolved type are cached.
+     */
+    private static MethodSpec createContextual(ClassName serializerType) {
+        String property = "property";
+        String contextualType = "contextualType";
+        String existing = "existing";
+        String contextual = "contextual";
+        return MethodSpec.methodBuilder("createContextual")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(Override.class)
+                .returns(WILDCARD_SERIALIZER)
+                .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                        .build())
+                .addParameter(ParameterSpec.builder(BeanProperty.class, property).build())
+                .addException(JsonMappingException.class)
+                .beginControlFlow("if ($N == null)", property)
+                .addStatement("return this")
+                .endControlFlow()
+                .addStatement("$T $N = $N.getType()", JavaType.class, contextualType, property)
+                .beginControlFlow(
+                        "if ($N.equals($N) || !$N.hasRawClass(handledType()))",
+                        StandardNames.TYPE,
+                        contextualType,
+                        contextualType)
+                .addStatement("return this")
+                .endControlFlow()
+                .addStatement(
+                        "$T $N = $N.get($N)", WILDCARD_SERIALIZER, existing, CONTEXTUAL_SERIALIZERS, contextualType)
+                .beginControlFlow("if ($N != null)", existing)
+                .addStatement("return $N", existing)
+                .endControlFlow()
+                .addStatement(
+                        "$T $N = new $T<>($N)",
+                        ParameterizedTypeName.get(serializerType, WildcardTypeName.subtypeOf(Object.class)),
+                        contextual,
+                        serializerType,
+                        contextualType)
+                .addStatement("$N.resolve($N)", contextual, StandardNames.PROVIDER)
+                .addStatement("$N.putIfAbsent($N, $N)", CONTEXTUAL_SERIALIZERS, contextualType, contextual)
+                .addStatement("return $N", contextual)
+                .build();
+    }
+
+    /** Serializers along with the serializers of the properties they unwrap, depth first. */
+    private static Stream<Serializer> flatten(List<Serializer> serializers) {
+        return serializers.stream().flatMap(ser -> Stream.concat(Stream.of(ser), flatten(ser.unwrapped())));
+    }
+
+    /**
+     * Accumulates the statements writing each property to the generator, and to the sink along with its size
+     * estimate. Properties of unwrapped values are written in place of the unwrapped property.
+     */
+    private static final class PropertyWrites {
+        private final boolean rawFieldNames;
+        private final boolean utf8Sink;
+        private final boolean viewRestricted;
+        private final List<TypeName> views;
+        private final ImmutableList.Builder<FieldSpec> fieldSpecs = ImmutableList.builder();
+        private final CodeBlock.Builder serializeBlock = CodeBlock.builder();
+        private final CodeBlock.Builder sinkBlock = CodeBlock.builder();
+        private final CodeBlock.Builder estimateBlock = CodeBlock.builder();
+        // Size of the properties which are always written, when it doesn't depend on their values
+        private int fixedSize;
+        private int fieldNames;
+
+        PropertyWrites(boolean rawFieldNames, boolean utf8Sink, boolean viewRestricted, List<TypeName> views) {
+            this.rawFieldNames = rawFieldNames;
+            this.utf8Sink = utf8Sink;
+            this.viewRestricted = viewRestricted;
+            this.views = views;
+        }
+
+        /** Adds a property, conditional if it's only written when an enclosing condition holds. */
+        void add(Serializer serializer, boolean conditional) {
+            boolean viewGuard = viewRestricted && !serializer.viewIndependent();
+            if (viewGuard) {
+                serializeBlock.beginControlFlow(
+                        "if (($N & 0x$L) != 0)", VIEW_MASK, Integer.toHexString(viewBits(serializer, views)));
+            }
+            serializer.valueDeclaration().ifPresent(serializeBlock::add);
+            serializer.includeCondition().ifPresent(condition -> serializeBlock.beginControlFlow("if ($L)", condition));
+            if (utf8Sink) {
+                serializer.valueDeclaration().ifPresent(sinkBlock::add);
+                serializer.includeCondition().ifPresent(condition -> sinkBlock.beginControlFlow("if ($L)", condition));
+            }
+            if (serializer.unwrapped().isEmpty()) {
+                addProperty(serializer, conditional);
+            } else {
+                if (utf8Sink) {
+                    serializer.valueDeclaration().ifPresent(estimateBlock::add);
+                    serializer
+                            .includeCondition()
+                            .ifPresent(condition -> estimateBlock.beginControlFlow("if ($L)", condition));
+                }
+                serializer.unwrapped().forEach(property -> add(property, true));
+                if (utf8Sink && serializer.includeCondition().isPresent()) {
+                    estimateBlock.endControlFlow();
+                }
+            }
+            if (serializer.includeCondition().isPresent()) {
+                serializeBlock.endControlFlow();
+                if (utf8Sink) {
+                    sinkBlock.endControlFlow();
+                }
+            }
+            if (viewGuard) {
+                serializeBlock.endControlFlow();
+            }
+        }
+
+        private void addProperty(Serializer serializer, boolean conditional) {
+            if (serializer.fieldName().isPresent()) {
+                String fieldName = serializer.fieldName().get();
+                String fieldNameConstant = "FIELD_NAME_" + fieldNames;
+                fieldSpecs.add(FieldSpec.builder(SerializedString.class, fieldNameConstant)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T($S)", SerializedString.class, fieldName)
+                        .build());
+                if (rawFieldNames) {
+                    // Separator and quoted name, the separator is skipped for the first property
+                    String rawFieldNameConstant = "RAW_FIELD_NAME_" + fieldNames;
+                    fieldSpecs.add(FieldSpec.builder(SerializedString.class, rawFieldNameConstant)
+                            .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                            .initializer(
+                                    "new $T($S)",
+                                    SerializedString.class,
+                                    ",\"" + new String(JsonStringEncoder.getInstance().quoteAsString(fieldName))
+                                            + '"')
+                            .build());
+                    serializeBlock.addStatement(
+                            "$N($N, $N, $N, $N)",
+                            WRITE_FIELD_NAME,
+                            GENERATOR,
+                            RAW_FIELD_NAMES,
+                            fieldNameConstant,
+                            rawFieldNameConstant);
+                } else {
+                    serializeBlock.addStatement("$N.writeFieldName($N)", GENERATOR, fieldNameConstant);
+                }
+                if (utf8Sink) {
+                    sinkBlock.addStatement("$N.writeFieldName($N)", StandardNames.SINK, fieldNameConstant);
+                }
+                fieldNames++;
+            }
+            serializeBlock.add(serializer.serializerBlock());
+            if (utf8Sink) {
+                sinkBlock.add(serializer.sinkBlock().orElseThrow(() -> new IllegalStateException(
+                        "Properties written to a sink must provide a sink block")));
+                addEstimate(serializer, conditional);
+            }
+        }
+
+        private void addEstimate(Serializer serializer, boolean conditional) {
+            // Quoted name, colon and separator
+            int nameSize = serializer.fieldName()
+                    .map(name -> JsonStringEncoder.getInstance().quoteAsUTF8(name).length + 4)
+                    .orElse(0);
+            int propertySize = nameSize + serializer.sinkFixedSize();
+            if (conditional || serializer.includeCondition().isPresent()) {
+                CodeBlock estimate = serializer.sinkSizeEstimate()
+                        .map(value -> CodeBlock.of("$L + $L", propertySize, value))
+                        .orElseGet(() -> CodeBlock.of("$L", propertySize));
+                serializer.valueDeclaration().ifPresent(estimateBlock::add);
+                serializer
+                        .includeCondition()
+                        .ifPresent(condition -> estimateBlock.beginControlFlow("if ($L)", condition));
+                estimateBlock.addStatement("$N += $L", SIZE, estimate);
+                if (serializer.includeCondition().isPresent()) {
+                    estimateBlock.endControlFlow();
+                }
+            } else {
+                fixedSize += propertySize;
+                serializer
+                        .sinkSizeEstimate()
+                        .ifPresent(estimate -> estimateBlock.addStatement("$N += $L", SIZE, estimate));
+            }
+        }
+    }
+
     private SerializerGenerator() {}
 }
@@ -0,0 +1,109 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor.gen.ser;
+
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+import net.ckozak.jackson.processor.EnumConstants;
+import net.ckozak.jackson.processor.Subtypes;
+
+/**
+ * Caches decisions about property types which require inspecting their declarations. The same property types
+ * are used by many of the types handled in a compilation, so each decision is made once per {@link TypeName}.
+ * Instances must not be shared between compilations.
+ */
+public final class SerializerTypeCache {
+    private final Elements elements;
+    private final Map<ClassName, Boolean> dispatched = new HashMap<>();
+    private final Map<TypeName, Optional<ImmutableList<String>>> enumNames = new HashMap<>();
+    private final Map<TypeName, Optional<ClassName>> generatedSerializers = new HashMap<>();
+    private final Map<TypeName, Optional<ClassName>> sinkWriters = new HashMap<>();
+
+    public SerializerTypeCache(Elements elements) {
+        this.elements = elements;
+    }
+
+    /** Returns true if values of the declared type are written by a dispatching serializer. */
+    boolean isDispatched(TypeElement typeElement) {
+        return dispatched.computeIfAbsent(ClassName.get(typeElement), _name -> Subtypes.isDispatched(typeElement));
+    }
+
+    /** Returns the serialized names of the constants of an enum type, indexed by ordinal, otherwise empty. */
+    Optional<ImmutableList<String>> enumNames(TypeName type) {
+        return enumNames.computeIfAbsent(type, this::findEnumNames);
+    }
+
+    /**
+     * Returns the serializer generated by this processor for values of the type. Empty unless the type is final,
+     * otherwise subclasses would be written using the serializer of their runtime type.
+     */
+    Optional<ClassName> generatedSerializer(TypeName type) {
+        return generatedSerializers.computeIfAbsent(type, this::findGeneratedSerializer);
+    }
+
+    /**
+     * Returns the serializer generated for the type when it enables {@link JacksonProcessor#utf8Sink()}, providing a
+     * static {@code writeTo} method. Empty unless the type is final.
+     */
+    Optional<ClassName> sinkWriter(TypeName type) {
+        return sinkWriters.computeIfAbsent(type, this::findSinkWriter);
+    }
+
+    private Optional<ImmutableList<String>> findEnumNames(TypeName type) {
+        return typeElement(type)
+                .filter(typeElement -> typeElement.getKind() == ElementKind.ENUM)
+                .filter(EnumConstants::isWrittenByName)
+                .map(EnumConstants::serializedNames);
+    }
+
+    private Optional<ClassName> findSinkWriter(TypeName type) {
+        return generatedSerializer(type).filter(_serializer -> typeElement(type)
+                .map(typeElement -> typeElement.getAnnotation(JacksonProcessor.class).utf8Sink())
+                .orElse(false));
+    }
+
+    private Optional<ClassName> findGeneratedSerializer(TypeName type) {
+        Optional<TypeElement> maybeTypeElement = typeElement(type);
+        if (!maybeTypeElement.isPresent()) {
+            return Optional.empty();
+        }
+        TypeElement typeElement = maybeTypeElement.get();
+        if (typeElement.getAnnotation(JacksonProcessor.class) == null
+                || !typeElement.getModifiers().contains(Modifier.FINAL)
+                || !typeElement.getTypeParameters().isEmpty()) {
+            return Optional.empty();
+        }
+        ClassName className = (ClassName) type;
+        return Optional.of(ClassName.get(className.packageName(), className.simpleName() + "_GeneratedSerializer"));
+    }
+
+    private Optional<TypeElement> typeElement(TypeName type) {
+        if (!(type instanceof ClassName)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(elements.getTypeElement(((ClassName) type).canonicalName()));
+    }
+}
@@ -16,9 +16,26 @@
 
 package net.ckozak.jackson.processor.gen.ser;
 
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.impl.TypeWrappedSerializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
@@ -26,37 +43,312 @@ import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.OptionalDouble;
 import java.util.OptionalInt;
-import java.util.OptionalLong;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 import net.ckozak.jackson.processor.StandardNames;
+import net.ckozak.jackson.processor.TypeNames;
+import net.ckozak.jackson.runtime.Utf8Sink;
 
 public final class Serializers {
+    private static final String BOUND_TYPE = "boundType";
+    private static final String FIND_SERIALIZER = "findSerializer";
+    private static final String TYPE_SERIALIZER = "typeSerializer";
+    private static final ImmutableSet<SerializationFeature> ENUM_FEATURES = ImmutableSet.of(
+            SerializationFeature.WRITE_ENUMS_USING_TO_STRING, SerializationFeature.WRITE_ENUMS_USING_INDEX);
+    // Longest values written by a Utf8Sink, numbers include the sign and quoted non-finite values
+    private static final int NULL_LENGTH = 4;
+    private static final int BOOLEAN_LENGTH = 5;
+    private static final ImmutableMap<TypeName, Integer> MAX_NUMBER_LENGTHS = ImmutableMap.<TypeName, Integer>builder()
+            .put(TypeName.BYTE, 4)
+            .put(TypeName.SHORT, 6)
+            .put(TypeName.INT, 11)
+            .put(TypeName.LONG, 20)
+            .put(TypeName.FLOAT, 15)
+            .put(TypeName.DOUBLE, 24)
+            .build();
 
-    private static final ClassName OPTIONAL = ClassName.get(Optional.class);
-    private static final ClassName STRING = ClassName.get(String.class);
-    private static final ClassName BIG_INT = ClassName.get(BigInteger.class);
-    private static final ClassName BIG_DEC = ClassName.get(BigDecimal.class);
+    /**
+     * Creates a {@link Serializer} for a property. Properties which are conditionally included are read into a local
+     * once, and only written when the {@link Serializer#includeCondition()} holds.
+     *
+     * @param cache decisions about property types made for other serializers generated in the same compilation
+     * @param defaultValue property value of a default constructed instance, used for {@link Include#NON_DEFAULT}
+     * @param nonNull whether the value is declared to never be null, in which case null checks are omitted
+     * @param rawValue whether the string value is written as-is, from {@link JsonRawValue}
+     */
+    public static Serializer serializerFor(
+            SerializerTypeCache cache,
+            String fieldName,
+            TypeMirror valueType,
+            CodeBlock valueAccessor,
+            Include include,
+            Optional<CodeBlock> defaultValue,
+            boolean nonNull,
+            boolean rawValue,
+            String generatorName,
+            int index) {
+        TypeName typeName = TypeName.get(valueType);
+        String localName = "property" + index;
+        String defaultName = "DEFAULT_" + index;
+        Optional<CodeBlock> defaultConstant = include == Include.NON_DEFAULT
+                ? defaultValue.map(_value -> CodeBlock.of("$N", defaultName))
+                : Optional.empty();
+        // Emptiness of other types is decided by their serializers, which aren't available when writing to a sink
+        boolean serializerInclusion =
+                include == Include.NON_EMPTY || (include == Include.NON_DEFAULT && !defaultConstant.isPresent());
+        // The jackson raw value serializer only considers null values to be empty
+        Optional<CodeBlock> includeCondition = rawValue && serializerInclusion
+                ? includeCondition(cache, typeName, localName, Include.NON_NULL, nonNull, defaultConstant, index)
+                : includeCondition(cache, typeName, localName, include, nonNull, defaultConstant, index);
+        CodeBlock accessor = includeCondition.isPresent() ? CodeBlock.of("$N", localName) : valueAccessor;
+        // Every condition other than a comparison against the default value excludes null values
+        boolean valueNonNull = nonNull || (includeCondition.isPresent() && !defaultConstant.isPresent());
+        Serializer.Builder builder = Serializer.builder().fieldName(fieldName);
+        if (rawValue) {
+            // Raw values can only be written by a generator
+            builder.from(rawValue(accessor, generatorName, index));
+        } else {
+            builder.from(map(cache, typeName, accessor, index)
+                    .or(() -> polymorphic(cache, valueType, accessor, index))
+                    .or(() -> enumValue(cache, typeName, accessor, index))
+                    .orElseGet(() ->
+                            valueSerializerFor(cache, typeName, accessor, generatorName, valueNonNull, index)));
+            addSink(builder, sink(cache, typeName, accessor, serializerInclusion, valueNonNull, index));
+        }
+        if (defaultConstant.isPresent()) {
+            // Default values are read once, the same way jackson reads them from a default instance
+            builder.addSerializerFields(FieldSpec.builder(typeName, defaultName)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer(defaultValue.get())
+                    .build());
+        }
+        includeCondition.ifPresent(condition -> builder.valueDeclaration(CodeBlock.builder()
+                        .addStatement("$T $N = $L", typeName, localName, valueAccessor)
+                        .build())
+                .includeCondition(condition));
+        return builder.build();
+    }
 
-    private static final ClassName OPTIONAL_INT = ClassName.get(OptionalInt.class);
-    private static final ClassName OPTIONAL_LONG = ClassName.get(OptionalLong.class);
-    private static final ClassName OPTIONAL_DOUBLE = ClassName.get(OptionalDouble.class);
+    /**
+     * Creates a {@link Serializer} for the value of a {@link JsonValue} accessor, which jackson writes in place of the
+     * object. Empty unless the value is a string, number or boolean, which are written inline. The value is read into
+     * a local declared by the {@link Serializer#valueDeclaration()}.
+     */
+    public static Optional<Serializer> jsonValueFor(
+            SerializerTypeCache cache, TypeMirror valueType, CodeBlock valueAccessor) {
+        String localName = StandardNames.JSON_VALUE;
+        TypeName typeName = TypeName.get(valueType);
+        if (!TypeNames.STRING.equals(typeName) && !TypeName.BOOLEAN.equals(typeName) && !TypeNames.isNumber(typeName)) {
+            return Optional.empty();
+        }
+        CodeBlock local = CodeBlock.of("$N", localName);
+        Serializer.Builder builder = Serializer.builder()
+                .from(valueSerializerFor(cache, typeName, local, StandardNames.GENERATOR, false, 0))
+                .valueDeclaration(CodeBlock.builder()
+                        .addStatement("$T $N = $L", typeName, localName, valueAccessor)
+                        .build());
+        addSink(builder, sink(cache, typeName, local, false, false, 0));
+        return Optional.of(builder.build());
+    }
 
-    public static Serializer serializerFor(
-            String fieldName, TypeName valueType, CodeBlock valueAccessor, String generatorName, int index) {
-        if (STRING.equals(valueType)) {
+    private static void addSink(Serializer.Builder builder, Optional<Serializer> sink) {
+        if (sink.isPresent()) {
+            builder.sinkBlock(sink.get().serializerBlock())
+                    .addAllSinkMethods(sink.get().serializerMethods())
+                    .sinkFixedSize(sink.get().sinkFixedSize())
+                    .sinkSizeEstimate(sink.get().sinkSizeEstimate());
+        }
+    }
+
+    /** Writes a string property as-is, the same way as the jackson raw value serializer. */
+    private static Serializer rawValue(CodeBlock valueAccessor, String generatorName, int index) {
+        String methodName = "serializeField" + index;
+        String valueName = StandardNames.VALUE;
+        return Serializer.builder()
+                .serializerBlock(CodeBlock.builder()
+                        .addStatement("$N($L, $N)", methodName, valueAccessor, generatorName)
+                        .build())
+                .addSerializerMethods(MethodSpec.methodBuilder(methodName)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                        .addParameter(ParameterSpec.builder(String.class, valueName).build())
+                        .addParameter(ParameterSpec.builder(JsonGenerator.class, StandardNames.GENERATOR)
+                                .build())
+                        .addException(IOException.class)
+                        .beginControlFlow("if ($N == null)", valueName)
+                        .addStatement("$N.writeNull()", StandardNames.GENERATOR)
+                        .nextControlFlow("else")
+                        .addStatement("$N.writeRawValue($N)", StandardNames.GENERATOR, valueName)
+                        .endControlFlow()
+                        .build())
+                .build();
+    }
+
+    /**
+     * Creates the condition under which a property is written, matching the checks jackson applies for each
+     * {@link Include} value. Empty when the property is always written.
+     */
+    private static Optional<CodeBlock> includeCondition(
+            SerializerTypeCache cache,
+            TypeName type,
+            String localName,
+            Include include,
+            boolean nonNull,
+            Optional<CodeBlock> defaultValue,
+            int index) {
+        switch (include) {
+            case NON_NULL:
+                return type.isPrimitive() || nonNull
+                        ? Optional.empty()
+                        : Optional.of(CodeBlock.of("$N != null", localName));
+            case NON_ABSENT:
+                if (type.isPrimitive()) {
+                    return Optional.empty();
+                }
+                if (nonNull) {
+                    return isOptional(type) ? Optional.of(CodeBlock.of("$N.isPresent()", localName)) : Optional.empty();
+                }
+                return Optional.of(
+                        isOptional(type)
+                                ? CodeBlock.of("$N != null && $N.isPresent()", localName, localName)
+                                : CodeBlock.of("$N != null", localName));
+            case NON_EMPTY:
+                return type.isPrimitive() ? Optional.empty() : Optional.of(nonEmpty(cache, type, localName, index));
+            case NON_DEFAULT:
+                return Optional.of(
+                        defaultValue.isPresent()
+                                ? differsFrom(type, localName, defaultValue.get())
+                                : nonDefault(cache, type, localName, index));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static CodeBlock nonEmpty(SerializerTypeCache cache, TypeName type, String localName, int index) {
+        TypeName erased = TypeNames.erased(type);
+        if (TypeNames.STRING.equals(type)
+                || TypeNames.LIST.equals(erased)
+                || TypeNames.SET.equals(erased)
+                || TypeNames.COLLECTION.equals(erased)
+                || TypeNames.MAP.equals(erased)) {
+            return CodeBlock.of("$N != null && !$N.isEmpty()", localName, localName);
+        }
+        if (isOptional(type)) {
+            return CodeBlock.of("$N != null && $N.isPresent()", localName, localName);
+        }
+        if (type instanceof ArrayTypeName) {
+            return CodeBlock.of("$N != null && $N.length != 0", localName, localName);
+        }
+        if (TypeNames.isNullableNumber(type)
+                || TypeName.BOOLEAN.box().equals(type)
+                || cache.enumNames(type).isPresent()) {
+            return CodeBlock.of("$N != null", localName);
+        }
+        if (ClassName.OBJECT.equals(type) || type instanceof TypeVariableName) {
+            // Emptiness depends on the runtime type
+            return CodeBlock.of(
+                    "$N != null && !$N.findValueSerializer($N.getClass()).isEmpty($N, $N)",
+                    localName,
+                    StandardNames.PROVIDER,
+                    localName,
+                    StandardNames.PROVIDER,
+                    localName);
+        }
+        // Remaining types are written using a resolved serializer
+        return CodeBlock.of(
+                "$N != null && !$N.isEmpty($N, $N)",
+                localName,
+                "serializer" + index,
+                StandardNames.PROVIDER,
+                localName);
+    }
+
+    /** Primitives and their wrappers exclude zero values, other types are excluded when empty. */
+    private static CodeBlock nonDefault(SerializerTypeCache cache, TypeName type, String localName, int index) {
+        if (type.isPrimitive()) {
+            return nonZero(type, localName);
+        }
+        if (type.isBoxedPrimitive()) {
+            return CodeBlock.of("$N != null && $L", localName, nonZero(type.unbox(), localName));
+        }
+        return nonEmpty(cache, type, localName, index);
+    }
+
+    private static CodeBlock nonZero(TypeName primitiveType, String localName) {
+        if (TypeName.BOOLEAN.equals(primitiveType)) {
+            return CodeBlock.of("$N", localName);
+        }
+        if (TypeName.CHAR.equals(primitiveType)) {
+            return CodeBlock.of("$N != '\\0'", localName);
+        }
+        if (TypeName.FLOAT.equals(primitiveType) || TypeName.DOUBLE.equals(primitiveType)) {
+            // Matches boxed equality, which distinguishes negative zero
+            return CodeBlock.of("$T.compare($N, 0) != 0", primitiveType.box(), localName);
+        }
+        return CodeBlock.of("$N != 0", localName);
+    }
+
+    private static CodeBlock differsFrom(TypeName type, String localName, CodeBlock defaultValue) {
+        if (TypeName.FLOAT.equals(type) || TypeName.DOUBLE.equals(type)) {
+            return CodeBlock.of("$T.compare($N, $L) != 0", type.box(), localName, defaultValue);
+        }
+        if (type.isPrimitive()) {
+            return CodeBlock.of("$N != $L", localName, defaultValue);
+        }
+        Class<?> equality = type instanceof ArrayTypeName ? Arrays.class : Objects.class;
+        return CodeBlock.of("!$T.equals($N, $L)", equality, localName, defaultValue);
+    }
+
+    private static boolean isOptional(TypeName type) {
+        return TypeNames.OPTIONAL.equals(TypeNames.erased(type))
+                || TypeNames.OPTIONAL_INT.equals(type)
+                || TypeNames.OPTIONAL_LONG.equals(type)
+                || TypeNames.OPTIONAL_DOUBLE.equals(type);
+    }
+
+    /**
+     * Creates a {@link Serializer} which writes the value, assuming the field name has already been written. Values
+     * which are known to be {@code nonNull} are written without checking for null.
+     */
+    private static Serializer valueSerializerFor(
+            SerializerTypeCache cache,
+            TypeName valueType,
+            CodeBlock valueAccessor,
+            String generatorName,
+            boolean nonNull,
+            int index) {
+        if (TypeNames.STRING.equals(valueType)) {
             return Serializer.builder()
                     .serializerBlock(CodeBlock.builder()
-                            .addStatement("$N.writeStringField($S, $L)", generatorName, fieldName, valueAccessor)
+                            .addStatement("$N.writeString($L)", generatorName, valueAccessor)
                             .build())
                     .build();
         }
-        if (isNullableNumber(valueType)) {
+        if (TypeName.BOOLEAN.equals(valueType) || (nonNull && TypeName.BOOLEAN.box().equals(valueType))) {
+            return Serializer.builder()
+                    .serializerBlock(CodeBlock.builder()
+                            .addStatement("$N.writeBoolean($L)", generatorName, valueAccessor)
+                            .build())
+                    .build();
+        }
+        if (TypeNames.isNullableNumber(valueType) && !nonNull) {
             // Ideally this would be beased on the property name in some way, for cleaner stack traces.
             // Punting on the complexity for now.
             String methodName = "serializeField" + index;
@@ -73,84 +365,80 @@ public final class Serializers {
                                     .build())
                             .addException(IOException.class)
                             .beginControlFlow("if ($N == null)", valueName)
-                            .addStatement("$N.writeNullField($S)", generatorName, fieldName)
+                            .addStatement("$N.writeNull()", generatorName)
                             .nextControlFlow("else")
-                            .addStatement("$N.writeNumberField($S, $N)", generatorName, fieldName, valueName)
+                            .addStatement("$N.writeNumber($N)", generatorName, valueName)
                             .endControlFlow()
                             .build())
                     .build();
         }
         Optional<Serializer> optionalNumberSerializer =
-                optionalNumber(fieldName, valueType, valueAccessor, generatorName, index);
+                optionalNumber(valueType, valueAccessor, generatorName, nonNull, index);
         if (optionalNumberSerializer.isPresent()) {
             return optionalNumberSerializer.get();
         }
-        if (isNumber(valueType)) {
+        Optional<Serializer> arraySerializer = array(valueType, valueAccessor, generatorName, index);
+        if (arraySerializer.isPresent()) {
+            return arraySerializer.get();
+        }
+        Optional<Serializer> collectionSerializer = collection(cache, valueType, valueAccessor, index);
+        if (collectionSerializer.isPresent()) {
+            return collectionSerializer.get();
+        }
+        if (TypeNames.isNumber(valueType)) {
             return Serializer.builder()
                     .serializerBlock(CodeBlock.builder()
-                            .addStatement("$N.writeNumberField($S, $L)", generatorName, fieldName, valueAccessor)
+                            .addStatement("$N.writeNumber($L)", generatorName, valueAccessor)
                             .build())
                     .build();
         }
         if (ClassName.OBJECT.equals(valueType)) {
             return Serializer.builder()
                     .serializerBlock(CodeBlock.builder()
-                            .addStatement("$N.writeObjectField($S, $L)", generatorName, fieldName, valueAccessor)
+                            .addStatement("$N.writeObject($L)", generatorName, valueAccessor)
                             .build())
                     .build();
         }
-        // TODO(ckozak): Handle optional and collection serialization inline
+        // TODO(ckozak): Handle optional serialization inline
         String serializerFieldName = "serializer" + index;
-        ClassName rawSerializerType = ClassName.get(JsonSerializer.class);
-        TypeName serializerType = ParameterizedTypeName.get(rawSerializerType, valueType);
-        return Serializer.builder()
+        String methodName = "serializeField" + index;
+        Optional<ClassName> generatedSerializer = cache.generatedSerializer(valueType);
+        Serializer.Builder builder = Serializer.builder()
                 .serializerBlock(CodeBlock.builder()
                         .addStatement(
-                                "$N.serialize($L, $N, $N)",
-                                serializerFieldName,
+                                "$N($L, $N, $N)",
+                                methodName,
                                 valueAccessor,
                                 StandardNames.GENERATOR,
                                 StandardNames.PROVIDER)
                         .build())
-                .resolverBlock(CodeBlock.builder()
-                        // This is a bit of a type-system hack, I narrow the serializer type to the field type
-                        // to cause a compilation failure if the generated code doesn't work the way we expect.
-                        .addStatement(
-                                "$N = ($T) ($T) $N.findValueSerializer($N.getTypeFactory()"
-                                        + ".constructType(new $T<$T>() {}))",
-                                serializerFieldName,
-                                serializerType,
-                                rawSerializerType,
-                                StandardNames.PROVIDER,
-                                StandardNames.PROVIDER,
-                                TypeReference.class,
-                                valueType)
-                        .build())
-                .addSerializerFields(FieldSpec.builder(serializerType, serializerFieldName)
+                .addSerializerMethods(MethodSpec.methodBuilder(methodName)
                         .addModifiers(Modifier.PRIVATE)
-                        .build())
-                .build();
-    }
-
-    private static boolean isNullableNumber(TypeName type) {
-        return !type.isPrimitive() && isNumber(type);
+                        .addParameter(ParameterSpec.builder(valueType.box(), StandardNames.VALUE)
+                                .build())
+                        .addParameter(ParameterSpec.builder(JsonGenerator.class, StandardNames.GENERATOR)
+                                .build())
+                        .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                                .build())
+                        .addException(IOException.class)
+                        .addCode(serializerWrite(
+                                valueType, StandardNames.VALUE, serializerFieldName, generatedSerializer, nonNull))
+                        .build());
+        addValueSerializer(builder, valueType.box(), serializerFieldName, generatedSerializer);
+        return builder.build();
     }
 
     private static Optional<Serializer> optionalNumber(
-            String fieldName, TypeName type, CodeBlock valueAccessor, String generatorName, int index) {
+            TypeName type, CodeBlock valueAccessor, String generatorName, boolean nonNull, int index) {
         String unwrapMethod = null;
-        if (OPTIONAL_INT.equals(type)) {
+        if (TypeNames.OPTIONAL_INT.equals(type)) {
             unwrapMethod = "getAsInt";
-        } else if (OPTIONAL_LONG.equals(type)) {
+        } else if (TypeNames.OPTIONAL_LONG.equals(type)) {
             unwrapMethod = "getAsLong";
-        } else if (OPTIONAL_DOUBLE.equals(type)) {
+        } else if (TypeNames.OPTIONAL_DOUBLE.equals(type)) {
             unwrapMethod = "getAsDouble";
-        }
-        if (type instanceof ParameterizedTypeName) {
-            ParameterizedTypeName param = (ParameterizedTypeName) type;
-            if (OPTIONAL.equals(param.rawType) && isNumber(param.typeArguments.get(0))) {
-                unwrapMethod = "get";
-            }
+        } else if (TypeNames.optionalNumberValueType(type).isPresent()) {
+            unwrapMethod = "get";
         }
         if (unwrapMethod != null) {
             String methodName = "serializeField" + index;
@@ -166,16 +454,15 @@ public final class Serializers {
                             .addParameter(ParameterSpec.builder(JsonGenerator.class, StandardNames.GENERATOR)
                                     .build())
                             .addException(IOException.class)
-                            // Fail (NPE) on null optional.
-                            .beginControlFlow("if ($N.isPresent())", valueName)
-                            .addStatement(
-                                    "$N.writeNumberField($S, $N.$N())",
-                                    generatorName,
-                                    fieldName,
-                                    valueName,
-                                    unwrapMethod)
+                            // Null optionals are written as null, the same as empty optionals
+                            .beginControlFlow(
+                                    "if ($L)",
+                                    nonNull
+                                            ? CodeBlock.of("$N.isPresent()", valueName)
+                                            : CodeBlock.of("$N != null && $N.isPresent()", valueName, valueName))
+                            .addStatement("$N.writeNumber($N.$N())", generatorName, valueName, unwrapMethod)
                             .nextControlFlow("else")
-                            .addStatement("$N.writeNullField($S)", generatorName, fieldName)
+                            .addStatement("$N.writeNull()", generatorName)
                             .endControlFlow()
                             .build())
                     .build());
@@ -183,22 +470,926 @@ public final class Serializers {
         return Optional.empty();
     }
 
-    @SuppressWarnings("checkstyle:CyclomaticComplexity")
-    private static boolean isNumber(TypeName type) {
-        return TypeName.INT.equals(type)
-                || TypeName.FLOAT.equals(type)
-                || TypeName.LONG.equals(type)
-                || TypeName.SHORT.equals(type)
-                || TypeName.BYTE.equals(type)
-                || TypeName.DOUBLE.equals(type)
-                || TypeName.INT.box().equals(type)
-                || TypeName.FLOAT.box().equals(type)
-                || TypeName.LONG.box().equals(type)
-                || TypeName.SHORT.box().equals(type)
-                || TypeName.BYTE.box().equals(type)
-                || TypeName.DOUBLE.box().equals(type)
-                || BIG_INT.equals(type)
-                || BIG_DEC.equals(type);
+    /** Arrays of primitive numbers and strings are written using the generators bulk array methods. */
+    private static Optional<Serializer> array(
+            TypeName type, CodeBlock valueAccessor, String generatorName, int index) {
+        if (!(type instanceof ArrayTypeName)) {
+            return Optional.empty();
+        }
+        TypeName componentType = ((ArrayTypeName) type).componentType;
+        String valueName = StandardNames.VALUE;
+        String methodName = "serializeField" + index;
+        MethodSpec.Builder method = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(ParameterSpec.builder(type, valueName).build())
+                .addParameter(ParameterSpec.builder(JsonGenerator.class, StandardNames.GENERATOR)
+                        .build());
+        CodeBlock invocation;
+        CodeBlock write;
+        if (TypeName.BYTE.equals(componentType)) {
+            // Matches ByteArraySerializer, which uses the configured base64 variant
+            method.addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                    .build());
+            invocation =
+                    CodeBlock.of("$N($L, $N, $N)", methodName, valueAccessor, generatorName, StandardNames.PROVIDER);
+            write = CodeBlock.builder()
+                    .addStatement(
+                            "$N.writeBinary($N.getConfig().getBase64Variant(), $N, 0, $N.length)",
+                            generatorName,
+                            StandardNames.PROVIDER,
+                            valueName,
+                            valueName)
+                    .build();
+        } else if (TypeName.INT.equals(componentType)
+                || TypeName.LONG.equals(componentType)
+                || TypeName.DOUBLE.equals(componentType)
+                || TypeNames.STRING.equals(componentType)) {
+            invocation = CodeBlock.of("$N($L, $N)", methodName, valueAccessor, generatorName);
+            write = CodeBlock.builder()
+                    .addStatement("$N.writeArray($N, 0, $N.length)", generatorName, valueName, valueName)
+                    .build();
+        } else {
+            return Optional.empty();
+        }
+        return Optional.of(Serializer.builder()
+                .serializerBlock(CodeBlock.builder().addStatement("$L", invocation).build())
+                .addSerializerMethods(method.addException(IOException.class)
+                        .beginControlFlow("if ($N == null)", valueName)
+                        .addStatement("$N.writeNull()", generatorName)
+                        .nextControlFlow("else")
+                        .addCode(write)
+                        .endControlFlow()
+                        .build())
+                .build());
+    }
+
+    /**
+     * Collections are written inline rather than through a {@code CollectionSerializer}, avoiding per-element
+     * serializer lookups and iterator allocation for {@link RandomAccess} lists.
+     */
+    private static Optional<Serializer> collection(
+            SerializerTypeCache cache, TypeName type, CodeBlock valueAccessor, int index) {
+        Optional<TypeName> maybeElementType = TypeNames.collectionElementType(type);
+        if (!maybeElementType.isPresent()) {
+            return Optional.empty();
+        }
+        TypeName elementType = maybeElementType.get();
+        String methodName = "serializeField" + index;
+        String elementSerializerName = "elementSerializer" + index;
+        String valuesName = "VALUES_" + index;
+        Optional<ClassName> generatedSerializer = cache.generatedSerializer(elementType);
+        Optional<ImmutableList<String>> enumNames = cache.enumNames(elementType);
+        String valueName = StandardNames.VALUE;
+        String sizeName = "size";
+        String indexName = "i";
+        String itemName = "item";
+        Serializer.Builder builder = Serializer.builder();
+        MethodSpec.Builder method = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(ParameterSpec.builder(type, valueName).build())
+                .addParameter(ParameterSpec.builder(JsonGenerator.class, StandardNames.GENERATOR)
+                        .build())
+                .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                        .build())
+                .addException(IOException.class)
+                .beginControlFlow("if ($N == null)", valueName)
+                .addStatement("$N.defaultSerializeNull($N)", StandardNames.PROVIDER, StandardNames.GENERATOR)
+                .addStatement("return")
+                .endControlFlow();
+        // Features which unwrap single elements, or change how constants are written, are left to the
+        // CollectionSerializer
+        Set<SerializationFeature> features = new LinkedHashSet<>();
+        features.add(SerializationFeature.WRITE_SINGLE_ELEM_ARRAYS_UNWRAPPED);
+        CodeBlock write;
+        if (enumNames.isPresent()) {
+            builder.addSerializerFields(enumNamesField(valuesName, enumNames.get()));
+            features.addAll(ENUM_FEATURES);
+            write = enumWrite(itemName, valuesName);
+        } else {
+            write = elementWrite(elementType, itemName, elementSerializerName, generatedSerializer);
+            addElementSerializer(builder, elementType, elementSerializerName, generatedSerializer);
+        }
+        method.beginControlFlow("if ($L)", fallbackFeatures(features))
+                .addStatement(
+                        "$N.defaultSerializeValue($N, $N)", StandardNames.PROVIDER, valueName, StandardNames.GENERATOR)
+                .addStatement("return")
+                .endControlFlow();
+        method.addStatement("int $N = $N.size()", sizeName, valueName)
+                .addStatement("$N.writeStartArray($N, $N)", StandardNames.GENERATOR, valueName, sizeName);
+        CodeBlock iteratorLoop = CodeBlock.builder()
+                .beginControlFlow("for ($T $N : $N)", elementType, itemName, valueName)
+                .add(write)
+                .endControlFlow()
+                .build();
+        if (TypeNames.LIST.equals(TypeNames.erased(type))) {
+            method.beginControlFlow("if ($N instanceof $T)", valueName, RandomAccess.class)
+                    .beginControlFlow("for (int $N = 0; $N < $N; $N++)", indexName, indexName, sizeName, indexName)
+                    .addStatement("$T $N = $N.get($N)", elementType, itemName, valueName, indexName)
+                    .addCode(write)
+                    .endControlFlow()
+                    .nextControlFlow("else")
+                    .addCode(iteratorLoop)
+                    .endControlFlow();
+        } else {
+            method.addCode(iteratorLoop);
+        }
+        method.addStatement("$N.writeEndArray()", StandardNames.GENERATOR);
+        return Optional.of(builder.serializerBlock(CodeBlock.builder()
+                        .addStatement(
+                                "$N($L, $N, $N)",
+                                methodName,
+                                valueAccessor,
+                                StandardNames.GENERATOR,
+                                StandardNames.PROVIDER)
+                        .build())
+                .addSerializerMethods(method.build())
+                .build());
+    }
+
+    /**
+     * Properties of a polymorphic type are written by the generated dispatching serializer, using the type serializer
+     * jackson would use for the declared type.
+     */
+    private static Optional<Serializer> polymorphic(
+            SerializerTypeCache cache, TypeMirror type, CodeBlock valueAccessor, int index) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return Optional.empty();
+        }
+        TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+        if (!cache.isDispatched(typeElement)) {
+            return Optional.empty();
+        }
+        ClassName typeName = ClassName.get(typeElement);
+        ClassName serializerType = typeName.peerClass(typeName.simpleName() + "_GeneratedSerializer");
+        String serializerFieldName = "serializer" + index;
+        String typeSerializerFieldName = "typeSerializer" + index;
+        String methodName = "serializeField" + index;
+        String valueName = StandardNames.VALUE;
+        return Optional.of(Serializer.builder()
+                .serializerBlock(CodeBlock.builder()
+                        .addStatement(
+                                "$N($L, $N, $N)",
+                                methodName,
+                                valueAccessor,
+                                StandardNames.GENERATOR,
+                                StandardNames.PROVIDER)
+                        .build())
+                .addSerializerFields(
+                        FieldSpec.builder(serializerType, serializerFieldName)
+                                .addModifiers(Modifier.PRIVATE)
+                                .build(),
+                        FieldSpec.builder(TypeSerializer.class, typeSerializerFieldName)
+                                .addModifiers(Modifier.PRIVATE)
+                                .build())
+                .resolverBlock(CodeBlock.builder()
+                        .addStatement("$N = new $T()", serializerFieldName, serializerType)
+                        .addStatement("$N.resolve($N)", serializerFieldName, StandardNames.PROVIDER)
+                        .addStatement(
+                                "$N = $N($N, $N.constructType($T.class))",
+                                typeSerializerFieldName,
+                                TYPE_SERIALIZER,
+                                StandardNames.PROVIDER,
+                                StandardNames.PROVIDER,
+                                typeName)
+                        .build())
+                .addSerializerMethods(
+                        MethodSpec.methodBuilder(methodName)
+                                .addModifiers(Modifier.PRIVATE)
+                                .addParameter(ParameterSpec.builder(typeName, valueName)
+                                        .build())
+                                .addParameter(ParameterSpec.builder(JsonGenerator.class, StandardNames.GENERATOR)
+                                        .build())
+                                .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                                        .build())
+                                .addException(IOException.class)
+                                .beginControlFlow("if ($N == null)", valueName)
+                                .addStatement(
+                                        "$N.defaultSerializeNull($N)", StandardNames.PROVIDER, StandardNames.GENERATOR)
+                                .nextControlFlow("else if ($N == null)", typeSerializerFieldName)
+                                .addStatement(
+                                        "$N.serialize($N, $N, $N)",
+                                        serializerFieldName,
+                                        valueName,
+                                        StandardNames.GENERATOR,
+                                        StandardNames.PROVIDER)
+                                .nextControlFlow("else")
+                                .addStatement(
+                                        "$N.serializeWithType($N, $N, $N, $N)",
+                                        serializerFieldName,
+                                        valueName,
+                                        StandardNames.GENERATOR,
+                                        StandardNames.PROVIDER,
+                                        typeSerializerFieldName)
+                                .endControlFlow()
+                                .build(),
+                        typeSerializerMethod())
+                .build());
+    }
+
+    /** Returns the type serializer jackson uses for values of the given declared type, or null if there is none. */
+    private static MethodSpec typeSerializerMethod() {
+        String serializer = "serializer";
+        return MethodSpec.methodBuilder(TYPE_SERIALIZER)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(TypeSerializer.class)
+                .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                        .build())
+                .addParameter(ParameterSpec.builder(JavaType.class, StandardNames.TYPE).build())
+                .addException(JsonMappingException.class)
+                .addStatement(
+                        "$T<$T> $N = $N.findTypedValueSerializer($N, true, null)",
+                        JsonSerializer.class,
+                        Object.class,
+                        serializer,
+                        StandardNames.PROVIDER,
+                        StandardNames.TYPE)
+                .addStatement(
+                        "return $N instanceof $T ? (($T) $N).typeSerializer() : null",
+                        serializer,
+                        TypeWrappedSerializer.class,
+                        TypeWrappedSerializer.class,
+                        serializer)
+                .build();
+    }
+
+    /**
+     * Maps are written inline rather than through a {@code MapSerializer} for {@link String} and enum keys. Names of
+     * enum keys and values are precomputed and indexed by ordinal.
+     */
+    private static Optional<Serializer> map(
+            SerializerTypeCache cache, TypeName typeName, CodeBlock valueAccessor, int index) {
+        if (!(typeName instanceof ParameterizedTypeName)
+                || !TypeNames.MAP.equals(((ParameterizedTypeName) typeName).rawType)) {
+            return Optional.empty();
+        }
+        TypeName keyType = ((ParameterizedTypeName) typeName).typeArguments.get(0);
+        TypeName valueType = ((ParameterizedTypeName) typeName).typeArguments.get(1);
+        Optional<ImmutableList<String>> enumKeyNames = cache.enumNames(keyType);
+        if (valueType instanceof WildcardTypeName || !(TypeNames.STRING.equals(keyType) || enumKeyNames.isPresent())) {
+            return Optional.empty();
+        }
+        String methodName = "serializeField" + index;
+        String valueSerializerName = "valueSerializer" + index;
+        String valuesName = "VALUES_" + index;
+        Optional<ClassName> generatedSerializer = cache.generatedSerializer(valueType);
+        Optional<ImmutableList<String>> enumValueNames = cache.enumNames(valueType);
+        String keysName = "KEYS_" + index;
+        String valueName = StandardNames.VALUE;
+        String entryName = "entry";
+        String keyName = "key";
+        String itemName = "item";
+        Serializer.Builder builder = Serializer.builder();
+        // Features which change how keys and enum values are written, or entries are ordered, are left to the
+        // MapSerializer
+        Set<SerializationFeature> features = new LinkedHashSet<>();
+        features.add(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        CodeBlock writeKey;
+        if (enumKeyNames.isPresent()) {
+            builder.addSerializerFields(enumNamesField(keysName, enumKeyNames.get()));
+            features.add(SerializationFeature.WRITE_ENUMS_USING_TO_STRING);
+            features.add(SerializationFeature.WRITE_ENUM_KEYS_USING_INDEX);
+            writeKey = CodeBlock.of("$N.writeFieldName($N[$N.ordinal()])", StandardNames.GENERATOR, keysName, keyName);
+        } else {
+            writeKey = CodeBlock.of("$N.writeFieldName($N)", StandardNames.GENERATOR, keyName);
+        }
+        CodeBlock writeValue;
+        if (enumValueNames.isPresent()) {
+            builder.addSerializerFields(enumNamesField(valuesName, enumValueNames.get()));
+            features.addAll(ENUM_FEATURES);
+            writeValue = enumWrite(itemName, valuesName);
+        } else {
+            writeValue = elementWrite(valueType, itemName, valueSerializerName, generatedSerializer);
+            addElementSerializer(builder, valueType, valueSerializerName, generatedSerializer);
+        }
+        TypeName entryType = ParameterizedTypeName.get(ClassName.get(Map.Entry.class), keyType, valueType);
+        MethodSpec method = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(ParameterSpec.builder(typeName, valueName).build())
+                .addParameter(ParameterSpec.builder(JsonGenerator.class, StandardNames.GENERATOR)
+                        .build())
+                .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                        .build())
+                .addException(IOException.class)
+                .beginControlFlow("if ($N == null)", valueName)
+                .addStatement("$N.defaultSerializeNull($N)", StandardNames.PROVIDER, StandardNames.GENERATOR)
+                .addStatement("return")
+                .endControlFlow()
+                .beginControlFlow("if ($L)", fallbackFeatures(features))
+                .addStatement(
+                        "$N.defaultSerializeValue($N, $N)", StandardNames.PROVIDER, valueName, StandardNames.GENERATOR)
+                .addStatement("return")
+                .endControlFlow()
+                .addStatement("$N.writeStartObject($N, $N.size())", StandardNames.GENERATOR, valueName, valueName)
+                .beginControlFlow("for ($T $N : $N.entrySet())", entryType, entryName, valueName)
+                .addStatement("$T $N = $N.getKey()", keyType, keyName, entryName)
+                .beginControlFlow("if ($N == null)", keyName)
+                .addStatement(
+                        "$N.getDefaultNullKeySerializer().serialize(null, $N, $N)",
+                        StandardNames.PROVIDER,
+                        StandardNames.GENERATOR,
+                        StandardNames.PROVIDER)
+                .nextControlFlow("else")
+                .addStatement("$L", writeKey)
+                .endControlFlow()
+                .addStatement("$T $N = $N.getValue()", valueType, itemName, entryName)
+                .addCode(writeValue)
+                .endControlFlow()
+                .addStatement("$N.writeEndObject()", StandardNames.GENERATOR)
+                .build();
+        return Optional.of(builder.serializerBlock(CodeBlock.builder()
+                        .addStatement(
+                                "$N($L, $N, $N)",
+                                methodName,
+                                valueAccessor,
+                                StandardNames.GENERATOR,
+                                StandardNames.PROVIDER)
+                        .build())
+                .addSerializerMethods(method)
+                .build());
+    }
+
+    /**
+     * Creates a serializer which writes the entries of a {@link com.fasterxml.jackson.annotation.JsonAnyGetter} map
+     * as properties of the enclosing object, nothing is written when the map is null. Values are written using the
+     * serializer of the declared value type. Empty unless the map has string keys.
+     */
+    public static Optional<Serializer> anyGetterFor(
+            SerializerTypeCache cache, TypeMirror valueType, CodeBlock valueAccessor, int index) {
+        TypeName typeName = TypeName.get(valueType);
+        if (!(typeName instanceof ParameterizedTypeName)
+                || !TypeNames.MAP.equals(((ParameterizedTypeName) typeName).rawType)
+                || !TypeNames.STRING.equals(((ParameterizedTypeName) typeName).typeArguments.get(0))) {
+            return Optional.empty();
+        }
+        TypeName entryValueType = ((ParameterizedTypeName) typeName).typeArguments.get(1);
+        // Wildcard values are written using the serializer of their runtime type
+        TypeName itemType = entryValueType instanceof WildcardTypeName ? ClassName.OBJECT : entryValueType;
+        String methodName = "serializeField" + index;
+        String valueSerializerName = "valueSerializer" + index;
+        String valueName = StandardNames.VALUE;
+        String entriesName = "entries";
+        String sortedName = "sorted";
+        String entryName = "entry";
+        String keyName = "key";
+        String itemName = "item";
+        Optional<ClassName> generatedSerializer = cache.generatedSerializer(itemType);
+        Serializer.Builder builder = Serializer.builder();
+        addElementSerializer(builder, itemType, valueSerializerName, generatedSerializer);
+        TypeName entryType =
+                ParameterizedTypeName.get(ClassName.get(Map.Entry.class), TypeNames.STRING, entryValueType);
+        TypeName sortedType = ParameterizedTypeName.get(ClassName.get(Map.class), TypeNames.STRING, itemType);
+        MethodSpec method = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(ParameterSpec.builder(typeName, valueName).build())
+                .addParameter(ParameterSpec.builder(JsonGenerator.class, StandardNames.GENERATOR)
+                        .build())
+                .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                        .build())
+                .addException(IOException.class)
+                .beginControlFlow("if ($N == null)", valueName)
+                .addStatement("return")
+                .endControlFlow()
+                .addStatement("$T $N = $N", typeName, entriesName, valueName)
+                .beginControlFlow(
+                        "if ($N.isEnabled($T.$L) && !($N instanceof $T))",
+                        StandardNames.PROVIDER,
+                        SerializationFeature.class,
+                        SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS.name(),
+                        valueName,
+                        SortedMap.class)
+                // The MapSerializer writes an entry with a null key before the others
+                .addStatement(
+                        "$T $N = new $T<>($T.nullsFirst($T.naturalOrder()))",
+                        sortedType,
+                        sortedName,
+                        TreeMap.class,
+                        Comparator.class,
+                        Comparator.class)
+                .addStatement("$N.putAll($N)", sortedName, valueName)
+                .addStatement("$N = $N", entriesName, sortedName)
+                .endControlFlow()
+                .beginControlFlow("for ($T $N : $N.entrySet())", entryType, entryName, entriesName)
+                .addStatement("$T $N = $N.getKey()", TypeNames.STRING, keyName, entryName)
+                .beginControlFlow("if ($N == null)", keyName)
+                .addStatement(
+                        "$N.getDefaultNullKeySerializer().serialize(null, $N, $N)",
+                        StandardNames.PROVIDER,
+                        StandardNames.GENERATOR,
+                        StandardNames.PROVIDER)
+                .nextControlFlow("else")
+                .addStatement("$N.writeFieldName($N)", StandardNames.GENERATOR, keyName)
+                .endControlFlow()
+                .addStatement("$T $N = $N.getValue()", itemType, itemName, entryName)
+                .addCode(elementWrite(itemType, itemName, valueSerializerName, generatedSerializer))
+                .endControlFlow()
+                .build();
+        return Optional.of(builder.serializerBlock(CodeBlock.builder()
+                        .addStatement(
+                                "$N($L, $N, $N)",
+                                methodName,
+                                valueAccessor,
+                                StandardNames.GENERATOR,
+                                StandardNames.PROVIDER)
+                        .build())
+                .addSerializerMethods(method)
+                .viewIndependent(true)
+                .build());
+    }
+
+    /** Creates a condition which holds when any of the features is enabled. */
+    private static CodeBlock fallbackFeatures(Collection<SerializationFeature> features) {
+        return features.stream()
+                .map(feature -> CodeBlock.of(
+                        "$N.isEnabled($T.$L)", StandardNames.PROVIDER, SerializationFeature.class, feature.name()))
+                .collect(CodeBlock.joining(" || "));
+    }
+
+    /**
+     * Enum constants are written using names precomputed for each ordinal, honoring {@link JsonProperty} on the
+     * constants. Features which change how constants are written are left to the {@code EnumSerializer}.
+     */
+    private static Optional<Serializer> enumValue(
+            SerializerTypeCache cache, TypeName type, CodeBlock valueAccessor, int index) {
+        Optional<ImmutableList<String>> enumNames = cache.enumNames(type);
+        if (!enumNames.isPresent()) {
+            return Optional.empty();
+        }
+        String methodName = "serializeField" + index;
+        String valuesName = "VALUES_" + index;
+        String valueName = StandardNames.VALUE;
+        return Optional.of(Serializer.builder()
+                .serializerBlock(CodeBlock.builder()
+                        .addStatement(
+                                "$N($L, $N, $N)",
+                                methodName,
+                                valueAccessor,
+                                StandardNames.GENERATOR,
+                                StandardNames.PROVIDER)
+                        .build())
+                .addSerializerFields(enumNamesField(valuesName, enumNames.get()))
+                .addSerializerMethods(MethodSpec.methodBuilder(methodName)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                        .addParameter(ParameterSpec.builder(type, valueName).build())
+                        .addParameter(ParameterSpec.builder(JsonGenerator.class, StandardNames.GENERATOR)
+                                .build())
+                        .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                                .build())
+                        .addException(IOException.class)
+                        .beginControlFlow("if ($N == null)", valueName)
+                        .addStatement("$N.defaultSerializeNull($N)", StandardNames.PROVIDER, StandardNames.GENERATOR)
+                        .nextControlFlow("else if ($L)", fallbackFeatures(ENUM_FEATURES))
+                        .addStatement(
+                                "$N.defaultSerializeValue($N, $N)",
+                                StandardNames.PROVIDER,
+                                valueName,
+                                StandardNames.GENERATOR)
+                        .nextControlFlow("else")
+                        .addStatement(
+                                "$N.writeString($N[$N.ordinal()])", StandardNames.GENERATOR, valuesName, valueName)
+                        .endControlFlow()
+                        .build())
+                .build());
+    }
+
+    /** Creates a constant holding the serialized names of enum constants, indexed by ordinal. */
+    private static FieldSpec enumNamesField(String name, ImmutableList<String> enumNames) {
+        return FieldSpec.builder(SerializedString[].class, name)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer(enumNames.stream()
+                        .map(enumName -> CodeBlock.of("new $T($S)", SerializedString.class, enumName))
+                        .collect(CodeBlock.joining(", ", "{", "}")))
+                .build();
+    }
+
+    /** Writes a single enum collection element or map value, which may be null. */
+    private static CodeBlock enumWrite(String itemName, String valuesName) {
+        return CodeBlock.builder()
+                .beginControlFlow("if ($N == null)", itemName)
+                .addStatement("$N.defaultSerializeNull($N)", StandardNames.PROVIDER, StandardNames.GENERATOR)
+                .nextControlFlow("else")
+                .addStatement("$N.writeString($N[$N.ordinal()])", StandardNames.GENERATOR, valuesName, itemName)
+                .endControlFlow()
+                .build();
+    }
+
+    /** Adds a serializer field for collection elements and map values which cannot be written directly. */
+    private static void addElementSerializer(
+            Serializer.Builder builder,
+            TypeName elementType,
+            String fieldName,
+            Optional<ClassName> generatedSerializer) {
+        if (TypeNames.STRING.equals(elementType)
+                || TypeNames.isNumber(elementType)
+                || ClassName.OBJECT.equals(elementType)) {
+            return;
+        }
+        addValueSerializer(builder, elementType, fieldName, generatedSerializer);
+    }
+
+    /**
+     * Adds a serializer field for values of the given type, which is resolved when the serializer is resolved.
+     * When the type has a {@code generatedSerializer}, the resolved serializer is also held in a field of the
+     * generated class, so that calls are statically bound unless the mapper overrides the serializer.
+     */
+    private static void addValueSerializer(
+            Serializer.Builder builder, TypeName type, String fieldName, Optional<ClassName> generatedSerializer) {
+        ClassName rawSerializerType = ClassName.get(JsonSerializer.class);
+        TypeName serializerType = ParameterizedTypeName.get(rawSerializerType, type);
+        builder.addSerializerFields(FieldSpec.builder(serializerType, fieldName)
+                .addModifiers(Modifier.PRIVATE)
+                .build());
+        if (TypeNames.hasTypeVariable(type)) {
+            // Type variables are resolved using the bindings of the JavaType the serializer was created for
+            builder.addSerializerMethods(boundTypeMethod(), findSerializerMethod())
+                    .resolverBlock(CodeBlock.builder()
+                            .addStatement(
+                                    "$N = ($T) $N($N, $L)",
+                                    fieldName,
+                                    serializerType,
+                                    FIND_SERIALIZER,
+                                    StandardNames.PROVIDER,
+                                    javaType(type))
+                            .build());
+        } else {
+            CodeBlock.Builder resolver = CodeBlock.builder()
+                    // This is a bit of a type-system hack, I narrow the serializer type to the field type
+                    // to cause a compilation failure if the generated code doesn't work the way we expect.
+                    .addStatement(
+                            "$N = ($T) ($T) $N.findValueSerializer($N.getTypeFactory()"
+                                    + ".constructType(new $T<$T>() {}))",
+                            fieldName,
+                            serializerType,
+                            rawSerializerType,
+                            StandardNames.PROVIDER,
+                            StandardNames.PROVIDER,
+                            TypeReference.class,
+                            type);
+            generatedSerializer.ifPresent(generatedType -> {
+                String generatedFieldName = generatedFieldName(fieldName);
+                builder.addSerializerFields(FieldSpec.builder(generatedType, generatedFieldName)
+                        .addModifiers(Modifier.PRIVATE)
+                        .build());
+                resolver.addStatement(
+                        "$N = $N instanceof $T ? ($T) $N : null",
+                        generatedFieldName,
+                        fieldName,
+                        generatedType,
+                        generatedType,
+                        fieldName);
+            });
+            builder.resolverBlock(resolver.build());
+        }
+    }
+
+    /** Creates an expression evaluating to the {@code JavaType} of {@code type}, resolving type variables. */
+    private static CodeBlock javaType(TypeName type) {
+        if (type instanceof TypeVariableName) {
+            return CodeBlock.of("$N($N, $S)", BOUND_TYPE, StandardNames.TYPE, ((TypeVariableName) type).name);
+        }
+        if (type instanceof ParameterizedTypeName) {
+            ParameterizedTypeName parameterized = (ParameterizedTypeName) type;
+            return CodeBlock.of(
+                    "$N.getTypeFactory().constructParametricType($T.class, $L)",
+                    StandardNames.PROVIDER,
+                    parameterized.rawType,
+                    parameterized.typeArguments.stream()
+                            .map(Serializers::javaType)
+                            .collect(CodeBlock.joining(", ")));
+        }
+        if (type instanceof ArrayTypeName) {
+            return CodeBlock.of(
+                    "$N.getTypeFactory().constructArrayType($L)",
+                    StandardNames.PROVIDER,
+                    javaType(((ArrayTypeName) type).componentType));
+        }
+        if (type instanceof WildcardTypeName) {
+            WildcardTypeName wildcard = (WildcardTypeName) type;
+            return wildcard.lowerBounds.isEmpty()
+                    ? javaType(wildcard.upperBounds.get(0))
+                    : CodeBlock.of("$T.unknownType()", TypeFactory.class);
+        }
+        return CodeBlock.of("$N.constructType($T.class)", StandardNames.PROVIDER, type);
+    }
+
+    private static MethodSpec boundTypeMethod() {
+        String name = "name";
+        String bound = "bound";
+        return MethodSpec.methodBuilder(BOUND_TYPE)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(JavaType.class)
+                .addParameter(ParameterSpec.builder(JavaType.class, StandardNames.TYPE).build())
+                .addParameter(ParameterSpec.builder(String.class, name).build())
+                .addStatement(
+                        "$T $N = $N.getBindings().findBoundType($N)", JavaType.class, bound, StandardNames.TYPE, name)
+                .addStatement("return $N == null ? $T.unknownType() : $N", bound, TypeFactory.class, bound)
+                .build();
+    }
+
+    /**
+     * Values of an unknown type are serialized based on their runtime type, the same way jackson handles
+     * {@link Object} properties, so no serializer is returned.
+     */
+    private static MethodSpec findSerializerMethod() {
+        return MethodSpec.methodBuilder(FIND_SERIALIZER)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(ParameterizedTypeName.get(
+                        ClassName.get(JsonSerializer.class), WildcardTypeName.subtypeOf(Object.class)))
+                .addParameter(ParameterSpec.builder(SerializerProvider.class, StandardNames.PROVIDER)
+                        .build())
+                .addParameter(ParameterSpec.builder(JavaType.class, StandardNames.TYPE).build())
+                .addException(JsonMappingException.class)
+                .addStatement(
+                        "return $N.isJavaLangObject() ? null : $N.findValueSerializer($N)",
+                        StandardNames.TYPE,
+                        StandardNames.PROVIDER,
+                        StandardNames.TYPE)
+                .build();
+    }
+
+    private static String generatedFieldName(String serializerFieldName) {
+        return "generated" + Character.toUpperCase(serializerFieldName.charAt(0)) + serializerFieldName.substring(1);
+    }
+
+    /** Writes a value using the serializer field, checking for null unless the value is known to be {@code nonNull}. */
+    private static CodeBlock serializerWrite(
+            TypeName type,
+            String itemName,
+            String serializerFieldName,
+            Optional<ClassName> generatedSerializer,
+            boolean nonNull) {
+        CodeBlock.Builder builder = CodeBlock.builder();
+        boolean branched = false;
+        if (!nonNull) {
+            builder.beginControlFlow("if ($N == null)", itemName)
+                    .addStatement("$N.defaultSerializeNull($N)", StandardNames.PROVIDER, StandardNames.GENERATOR);
+            branched = true;
+        }
+        if (type instanceof TypeVariableName) {
+            branch(builder, branched, CodeBlock.of("$N == null", serializerFieldName))
+                    .addStatement(
+                            "$N.defaultSerializeValue($N, $N)",
+                            StandardNames.PROVIDER,
+                            itemName,
+                            StandardNames.GENERATOR);
+            branched = true;
+        }
+        if (generatedSerializer.isPresent()) {
+            String generatedFieldName = generatedFieldName(serializerFieldName);
+            branch(builder, branched, CodeBlock.of("$N != null", generatedFieldName))
+                    .addStatement(
+                            "$N.serialize($N, $N, $N)",
+                            generatedFieldName,
+                            itemName,
+                            StandardNames.GENERATOR,
+                            StandardNames.PROVIDER);
+            branched = true;
+        }
+        if (branched) {
+            builder.nextControlFlow("else");
+        }
+        builder.addStatement(
+                "$N.serialize($N, $N, $N)",
+                serializerFieldName,
+                itemName,
+                StandardNames.GENERATOR,
+                StandardNames.PROVIDER);
+        if (branched) {
+            builder.endControlFlow();
+        }
+        return builder.build();
+    }
+
+    /** Begins the first branch of an if statement, or continues it with another condition. */
+    private static CodeBlock.Builder branch(CodeBlock.Builder builder, boolean branched, CodeBlock condition) {
+        return branched
+                ? builder.nextControlFlow("else if ($L)", condition)
+                : builder.beginControlFlow("if ($L)", condition);
+    }
+
+    /** Writes a single collection element or map value, which may be null. */
+    private static CodeBlock elementWrite(
+            TypeName elementType,
+            String itemName,
+            String elementSerializerName,
+            Optional<ClassName> generatedSerializer) {
+        if (TypeNames.STRING.equals(elementType)) {
+            return CodeBlock.builder()
+                    .addStatement("$N.writeString($N)", StandardNames.GENERATOR, itemName)
+                    .build();
+        }
+        if (ClassName.OBJECT.equals(elementType)) {
+            return CodeBlock.builder()
+                    .addStatement("$N.writeObject($N)", StandardNames.GENERATOR, itemName)
+                    .build();
+        }
+        if (TypeNames.isNumber(elementType)) {
+            return CodeBlock.builder()
+                    .beginControlFlow("if ($N == null)", itemName)
+                    .addStatement("$N.writeNull()", StandardNames.GENERATOR)
+                    .nextControlFlow("else")
+                    .addStatement("$N.writeNumber($N)", StandardNames.GENERATOR, itemName)
+                    .endControlFlow()
+                    .build();
+        }
+        return serializerWrite(elementType, itemName, elementSerializerName, generatedSerializer, false);
+    }
+
+    /**
+     * Creates a {@link Serializer} which writes the value to a {@code Utf8Sink}, assuming the field name has already
+     * been written, along with an estimate of the written length. Empty for values which can only be written by a
+     * generator.
+     */
+    private static Optional<Serializer> sink(
+            SerializerTypeCache cache,
+            TypeName type,
+            CodeBlock valueAccessor,
+            boolean serializerInclusion,
+            boolean nonNull,
+            int index) {
+        String sinkName = StandardNames.SINK;
+        // Wrappers which are known to be non-null are written the same way as primitives
+        TypeName primitiveType = nonNull && type.isBoxedPrimitive() ? type.unbox() : type;
+        if (TypeName.BOOLEAN.equals(primitiveType)) {
+            return Optional.of(Serializer.builder()
+                    .serializerBlock(CodeBlock.builder()
+                            .addStatement("$N.writeBoolean($L)", sinkName, valueAccessor)
+                            .build())
+                    .sinkFixedSize(BOOLEAN_LENGTH)
+                    .build());
+        }
+        if (primitiveType.isPrimitive() && TypeNames.isNumber(primitiveType)) {
+            return Optional.of(Serializer.builder()
+                    .serializerBlock(CodeBlock.builder()
+                            .addStatement("$N.writeNumber($L)", sinkName, valueAccessor)
+                            .build())
+                    .sinkFixedSize(MAX_NUMBER_LENGTHS.get(primitiveType))
+                    .build());
+        }
+        if (TypeNames.STRING.equals(type)) {
+            return Optional.of(Serializer.builder()
+                    .serializerBlock(CodeBlock.builder()
+                            .addStatement("$N.writeString($L)", sinkName, valueAccessor)
+                            .build())
+                    .sinkSizeEstimate(CodeBlock.of("$T.estimateString($L)", Utf8Sink.class, valueAccessor))
+                    .build());
+        }
+        if (serializerInclusion && cache.sinkWriter(type).isPresent()) {
+            return Optional.empty();
+        }
+        String methodName = "writeField" + index;
+        String estimateMethodName = "estimateField" + index;
+        String valuesName = "VALUES_" + index;
+        String valueName = StandardNames.VALUE;
+        MethodSpec.Builder method = MethodSpec.methodBuilder(methodName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(ParameterSpec.builder(type, valueName).build())
+                .addParameter(ParameterSpec.builder(Utf8Sink.class, sinkName).build());
+        MethodSpec.Builder estimateMethod = MethodSpec.methodBuilder(estimateMethodName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(TypeName.INT)
+                .addParameter(ParameterSpec.builder(type, valueName).build());
+        Serializer.Builder builder = Serializer.builder()
+                .serializerBlock(CodeBlock.builder()
+                        .addStatement("$N($L, $N)", methodName, valueAccessor, sinkName)
+                        .build());
+        Optional<TypeName> elementType = TypeNames.collectionElementType(type);
+        if (elementType.isPresent()) {
+            String itemName = "item";
+            Optional<CodeBlock> maybeWrite = sinkValueWrite(cache, elementType.get(), itemName, valuesName);
+            if (!maybeWrite.isPresent()) {
+                return Optional.empty();
+            }
+            CodeBlock write = maybeWrite.get();
+            String sizeName = "size";
+            String indexName = "i";
+            method.beginControlFlow("if ($N == null)", valueName)
+                    .addStatement("$N.writeNull()", sinkName)
+                    .addStatement("return")
+                    .endControlFlow()
+                    .addStatement("$N.writeStartArray()", sinkName);
+            CodeBlock iteratorLoop = CodeBlock.builder()
+                    .beginControlFlow("for ($T $N : $N)", elementType.get(), itemName, valueName)
+                    .add(write)
+                    .endControlFlow()
+                    .build();
+            if (TypeNames.LIST.equals(TypeNames.erased(type))) {
+                method.beginControlFlow("if ($N instanceof $T)", valueName, RandomAccess.class)
+                        .addStatement("int $N = $N.size()", sizeName, valueName)
+                        .beginControlFlow(
+                                "for (int $N = 0; $N < $N; $N++)", indexName, indexName, sizeName, indexName)
+                        .addStatement("$T $N = $N.get($N)", elementType.get(), itemName, valueName, indexName)
+                        .addCode(write)
+                        .endControlFlow()
+                        .nextControlFlow("else")
+                        .addCode(iteratorLoop)
+                        .endControlFlow();
+            } else {
+                method.addCode(iteratorLoop);
+            }
+            method.addStatement("$N.writeEndArray()", sinkName);
+            estimateMethod
+                    .beginControlFlow("if ($N == null)", valueName)
+                    .addStatement("return $L", NULL_LENGTH)
+                    .endControlFlow();
+            // Brackets and a separator for each element
+            OptionalInt elementFixedSize = sinkFixedSize(cache, elementType.get());
+            if (elementFixedSize.isPresent()) {
+                estimateMethod.addStatement("return 2 + $N.size() * $L", valueName, elementFixedSize.getAsInt() + 1);
+            } else {
+                estimateMethod
+                        .addStatement("int $N = 2 + $N.size()", sizeName, valueName)
+                        .beginControlFlow("for ($T $N : $N)", elementType.get(), itemName, valueName)
+                        .addStatement("$N += $L", sizeName, sinkValueEstimate(cache, elementType.get(), itemName))
+                        .endControlFlow()
+                        .addStatement("return $N", sizeName);
+            }
+            builder.sinkSizeEstimate(CodeBlock.of("$N($L)", estimateMethodName, valueAccessor))
+                    .addSerializerMethods(method.build(), estimateMethod.build());
+        } else {
+            Optional<CodeBlock> write = sinkValueWrite(cache, type, valueName, valuesName);
+            if (!write.isPresent()) {
+                return Optional.empty();
+            }
+            method.addCode(write.get());
+            builder.addSerializerMethods(method.build());
+            OptionalInt fixedSize = sinkFixedSize(cache, type);
+            if (fixedSize.isPresent()) {
+                builder.sinkFixedSize(fixedSize.getAsInt());
+            } else {
+                builder.sinkSizeEstimate(CodeBlock.of("$N($L)", estimateMethodName, valueAccessor))
+                        .addSerializerMethods(estimateMethod
+                                .addStatement("return $L", sinkValueEstimate(cache, type, valueName))
+                                .build());
+            }
+        }
+        return Optional.of(builder.build());
+    }
+
+    /**
+     * Writes a value which may be null to a {@code Utf8Sink}. Enum constants are written using the names held by
+     * {@code valuesName}. Empty for values which can only be written by a generator.
+     */
+    private static Optional<CodeBlock> sinkValueWrite(
+            SerializerTypeCache cache, TypeName type, String valueName, String valuesName) {
+        String sinkName = StandardNames.SINK;
+        if (TypeNames.STRING.equals(type)) {
+            return Optional.of(CodeBlock.builder()
+                    .addStatement("$N.writeString($N)", sinkName, valueName)
+                    .build());
+        }
+        CodeBlock write;
+        Optional<ClassName> sinkWriter = cache.sinkWriter(type);
+        if (TypeNames.isNullableNumber(type) && type.isBoxedPrimitive()) {
+            write = CodeBlock.of("$N.writeNumber($N)", sinkName, valueName);
+        } else if (TypeName.BOOLEAN.box().equals(type)) {
+            write = CodeBlock.of("$N.writeBoolean($N)", sinkName, valueName);
+        } else if (cache.enumNames(type).isPresent()) {
+            write = CodeBlock.of("$N.writeString($N[$N.ordinal()])", sinkName, valuesName, valueName);
+        } else if (sinkWriter.isPresent()) {
+            write = CodeBlock.of("$T.writeTo($N, $N)", sinkWriter.get(), valueName, sinkName);
+        } else {
+            return Optional.empty();
+        }
+        return Optional.of(CodeBlock.builder()
+                .beginControlFlow("if ($N == null)", valueName)
+                .addStatement("$N.writeNull()", sinkName)
+                .nextControlFlow("else")
+                .addStatement("$L", write)
+                .endControlFlow()
+                .build());
+    }
+
+    /**
+     * Longest output of {@link #sinkValueWrite} for a value which may be null, empty when the length depends on the
+     * value.
+     */
+    private static OptionalInt sinkFixedSize(SerializerTypeCache cache, TypeName type) {
+        if (TypeNames.isNullableNumber(type) && type.isBoxedPrimitive()) {
+            return OptionalInt.of(Math.max(MAX_NUMBER_LENGTHS.get(type.unbox()), NULL_LENGTH));
+        } else if (TypeName.BOOLEAN.box().equals(type)) {
+            return OptionalInt.of(BOOLEAN_LENGTH);
+        }
+        Optional<ImmutableList<String>> enumNames = cache.enumNames(type);
+        if (enumNames.isPresent()) {
+            // Quoted names, as written from the pre-encoded constants
+            return OptionalInt.of(enumNames.get().stream()
+                    .mapToInt(name -> JsonStringEncoder.getInstance().quoteAsUTF8(name).length + 2)
+                    .reduce(NULL_LENGTH, Math::max));
+        }
+        return OptionalInt.empty();
+    }
+
+    /** Expression estimating the output of {@link #sinkValueWrite} for values without a fixed size. */
+    private static CodeBlock sinkValueEstimate(SerializerTypeCache cache, TypeName type, String valueName) {
+        OptionalInt fixedSize = sinkFixedSize(cache, type);
+        if (fixedSize.isPresent()) {
+            return CodeBlock.of("$L", fixedSize.getAsInt());
+        } else if (TypeNames.STRING.equals(type)) {
+            return CodeBlock.of("$T.estimateString($N)", Utf8Sink.class, valueName);
+        }
+        ClassName sinkWriter = cache.sinkWriter(type)
+                .orElseThrow(() -> new IllegalStateException("Unexpected sink value type: " + type));
+        return CodeBlock.of("$N == null ? $L : $T.estimateSize($N)", valueName, NULL_LENGTH, sinkWriter, valueName);
     }
 
     private Serializers() {}
@@ -0,0 +1,38 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.processor.gen.ser;
+
+import com.squareup.javapoet.ClassName;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/** A subtype which is written by calling its generated serializer directly. */
+@Value.Immutable
+public interface Subtype {
+    ClassName type();
+
+    ClassName serializer();
+
+    /** Type id written for the subtype, present when the base type writes type ids as a property. */
+    Optional<String> typeId();
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    class Builder extends ImmutableSubtype.Builder {}
+}
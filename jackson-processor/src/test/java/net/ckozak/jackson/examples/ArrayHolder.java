@@ -0,0 +1,63 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+public final class ArrayHolder {
+
+    private final int[] ints;
+    private final long[] longs;
+    private final double[] doubles;
+    private final String[] strings;
+    private final byte[] bytes;
+
+    public ArrayHolder(int[] ints, long[] longs, double[] doubles, String[] strings, byte[] bytes) {
+        this.ints = ints;
+        this.longs = longs;
+        this.doubles = doubles;
+        this.strings = strings;
+        this.bytes = bytes;
+    }
+
+    @JsonProperty("ints")
+    public int[] getInts() {
+        return ints;
+    }
+
+    @JsonProperty("longs")
+    public long[] getLongs() {
+        return longs;
+    }
+
+    @JsonProperty("doubles")
+    public double[] getDoubles() {
+        return doubles;
+    }
+
+    @JsonProperty("strings")
+    public String[] getStrings() {
+        return strings;
+    }
+
+    @JsonProperty("bytes")
+    public byte[] getBytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+public final class CollectionHolder {
+
+    private final List<String> names;
+    private final Set<Integer> numbers;
+    private final List<SomeType> someTypes;
+    private final Collection<SomeType> others;
+
+    public CollectionHolder(
+            List<String> names, Set<Integer> numbers, List<SomeType> someTypes, Collection<SomeType> others) {
+        this.names = names;
+        this.numbers = numbers;
+        this.someTypes = someTypes;
+        this.others = others;
+    }
+
+    @JsonProperty("names")
+    public List<String> getNames() {
+        return names;
+    }
+
+    @JsonProperty("numbers")
+    public Set<Integer> getNumbers() {
+        return numbers;
+    }
+
+    @JsonProperty("someTypes")
+    public List<SomeType> getSomeTypes() {
+        return someTypes;
+    }
+
+    @JsonProperty("others")
+    public Collection<SomeType> getOthers() {
+        return others;
+    }
+}
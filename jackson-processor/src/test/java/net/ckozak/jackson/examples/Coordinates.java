@@ -0,0 +1,37 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+import org.immutables.value.Value;
+
+@JacksonProcessor
+@Value.Immutable
+@JsonDeserialize(builder = ImmutableCoordinates.Builder.class)
+public interface Coordinates {
+
+    @JsonProperty("lat")
+    double latitude();
+
+    @JsonProperty("lon")
+    double longitude();
+
+    @JsonProperty("label")
+    String label();
+}
@@ -0,0 +1,81 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.util.List;
+import java.util.Map;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+public final class EnumHolder {
+
+    private final Color color;
+    private final List<Color> colors;
+    private final Map<String, Color> colorsByName;
+    private final Code code;
+
+    public EnumHolder(Color color, List<Color> colors, Map<String, Color> colorsByName, Code code) {
+        this.color = color;
+        this.colors = colors;
+        this.colorsByName = colorsByName;
+        this.code = code;
+    }
+
+    @JsonProperty("color")
+    public Color getColor() {
+        return color;
+    }
+
+    @JsonProperty("colors")
+    public List<Color> getColors() {
+        return colors;
+    }
+
+    @JsonProperty("colorsByName")
+    public Map<String, Color> getColorsByName() {
+        return colorsByName;
+    }
+
+    @JsonProperty("code")
+    public Code getCode() {
+        return code;
+    }
+
+    public enum Color {
+        RED,
+        @JsonProperty("green")
+        GREEN
+    }
+
+    public enum Code {
+        FIRST("first"),
+        SECOND("second");
+
+        private final String value;
+
+        Code(String value) {
+            this.value = value;
+        }
+
+        @JsonValue
+        public String value() {
+            return value;
+        }
+    }
+}
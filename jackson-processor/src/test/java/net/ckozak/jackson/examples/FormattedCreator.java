@@ -0,0 +1,49 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import java.util.List;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+public final class FormattedCreator {
+
+    private final List<Number> values;
+    private final boolean flag;
+
+    @JsonCreator
+    public FormattedCreator(
+            @JsonProperty("values") @JsonDeserialize(contentAs = Integer.class) List<Number> values,
+            @JsonProperty("flag") @JsonFormat(shape = JsonFormat.Shape.NUMBER) boolean flag) {
+        this.values = values;
+        this.flag = flag;
+    }
+
+    @JsonProperty("values")
+    public List<Number> getValues() {
+        return values;
+    }
+
+    @JsonProperty("flag")
+    public boolean getFlag() {
+        return flag;
+    }
+}
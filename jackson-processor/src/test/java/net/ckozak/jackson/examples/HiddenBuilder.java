@@ -0,0 +1,52 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+@JsonDeserialize(builder = HiddenBuilder.Builder.class)
+public final class HiddenBuilder {
+
+    private final String name;
+
+    private HiddenBuilder(String name) {
+        this.name = name;
+    }
+
+    @JsonProperty("name")
+    public String getName() {
+        return name;
+    }
+
+    public static final class Builder {
+        private String name;
+
+        private Builder() {}
+
+        public Builder withName(String value) {
+            this.name = value;
+            return this;
+        }
+
+        public HiddenBuilder build() {
+            return new HiddenBuilder(name);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+@JsonInclude(Include.NON_ABSENT)
+public final class Inclusions {
+
+    private final String name;
+    private final OptionalInt optionalInt;
+    private final Optional<String> optionalString;
+    private final List<String> tags;
+    private final int[] values;
+    private final SomeType someType;
+    private final int count;
+    private final Double ratio;
+
+    public Inclusions(
+            String name,
+            OptionalInt optionalInt,
+            Optional<String> optionalString,
+            List<String> tags,
+            int[] values,
+            SomeType someType,
+            int count,
+            Double ratio) {
+        this.name = name;
+        this.optionalInt = optionalInt;
+        this.optionalString = optionalString;
+        this.tags = tags;
+        this.values = values;
+        this.someType = someType;
+        this.count = count;
+        this.ratio = ratio;
+    }
+
+    @JsonProperty("name")
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("optionalInt")
+    public OptionalInt getOptionalInt() {
+        return optionalInt;
+    }
+
+    @JsonProperty("optionalString")
+    public Optional<String> getOptionalString() {
+        return optionalString;
+    }
+
+    @JsonProperty("tags")
+    @JsonInclude(Include.NON_EMPTY)
+    public List<String> getTags() {
+        return tags;
+    }
+
+    @JsonProperty("values")
+    @JsonInclude(Include.NON_EMPTY)
+    public int[] getValues() {
+        return values;
+    }
+
+    @JsonProperty("someType")
+    @JsonInclude(Include.NON_EMPTY)
+    public SomeType getSomeType() {
+        return someType;
+    }
+
+    @JsonProperty("count")
+    @JsonInclude(Include.NON_DEFAULT)
+    public int getCount() {
+        return count;
+    }
+
+    @JsonProperty("ratio")
+    @JsonInclude(Include.NON_DEFAULT)
+    public Double getRatio() {
+        return ratio;
+    }
+
+    @JsonProperty("always")
+    @JsonInclude(Include.ALWAYS)
+    public String getAlways() {
+        return name;
+    }
+}
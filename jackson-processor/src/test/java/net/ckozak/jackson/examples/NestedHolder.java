@@ -0,0 +1,51 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import java.util.Map;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+public final class NestedHolder {
+
+    private final Simple simple;
+    private final List<Simple> simpleList;
+    private final Map<String, Simple> simpleMap;
+
+    public NestedHolder(Simple simple, List<Simple> simpleList, Map<String, Simple> simpleMap) {
+        this.simple = simple;
+        this.simpleList = simpleList;
+        this.simpleMap = simpleMap;
+    }
+
+    @JsonProperty("simple")
+    public Simple getSimple() {
+        return simple;
+    }
+
+    @JsonProperty("simpleList")
+    public List<Simple> getSimpleList() {
+        return simpleList;
+    }
+
+    @JsonProperty("simpleMap")
+    public Map<String, Simple> getSimpleMap() {
+        return simpleMap;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+@JsonInclude(Include.NON_DEFAULT)
+public final class NonDefaultBean {
+
+    private String name = "unnamed";
+    private int count = 1;
+    private double ratio;
+    private long[] values = {1L};
+
+    @JsonProperty("name")
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("count")
+    public int getCount() {
+        return count;
+    }
+
+    @JsonProperty("ratio")
+    public double getRatio() {
+        return ratio;
+    }
+
+    @JsonProperty("values")
+    public long[] getValues() {
+        return values;
+    }
+
+    @JsonProperty("label")
+    @JsonInclude(Include.NON_NULL)
+    public String getLabel() {
+        return name;
+    }
+}
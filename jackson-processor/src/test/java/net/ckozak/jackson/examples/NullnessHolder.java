@@ -0,0 +1,74 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@NonnullByDefault
+@JacksonProcessor(utf8Sink = true)
+public final class NullnessHolder {
+
+    private final Integer count;
+    private final Long total;
+    private final Boolean active;
+    private final String name;
+    private final String note;
+
+    public NullnessHolder(Integer count, Long total, Boolean active, String name, String note) {
+        this.count = count;
+        this.total = total;
+        this.active = active;
+        this.name = name;
+        this.note = note;
+    }
+
+    @Nonnull
+    @JsonProperty("count")
+    public Integer getCount() {
+        return count;
+    }
+
+    @CheckForNull
+    @JsonProperty("total")
+    public Long getTotal() {
+        return total;
+    }
+
+    @JsonProperty("active")
+    public Boolean isActive() {
+        return active;
+    }
+
+    @JsonProperty("name")
+    @JsonInclude(Include.NON_NULL)
+    public String getName() {
+        return name;
+    }
+
+    @Nullable
+    @JsonProperty("note")
+    @JsonInclude(Include.NON_NULL)
+    public String getNote() {
+        return note;
+    }
+}
@@ -20,8 +20,9 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonCreator.Mode;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
+import net.ckozak.jackson.annotations.JacksonProcessor;
 
-// @JacksonProcessor
+@JacksonProcessor
 // @JsonSerialize(using = ParameterizedSerializer.class)
 public final class Parameterized<T> {
 
@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+    @JsonSubTypes.Type(value = Shape.Circle.class, name = "circle"),
+    @JsonSubTypes.Type(Shape.Square.class)
+})
+public interface Shape {
+
+    @JacksonProcessor
+    final class Circle implements Shape {
+        private final double radius;
+
+        public Circle(double radius) {
+            this.radius = radius;
+        }
+
+        @JsonProperty("radius")
+        public double getRadius() {
+            return radius;
+        }
+    }
+
+    @JacksonProcessor
+    final class Square implements Shape {
+        private final double side;
+
+        public Square(double side) {
+            this.side = side;
+        }
+
+        @JsonProperty("side")
+        public double getSide() {
+            return side;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor(utf8Sink = true)
+public final class SinkHolder {
+
+    private final String name;
+    private final int count;
+    private final Long total;
+    private final boolean active;
+    private final double ratio;
+    private final Color color;
+    private final List<String> tags;
+    private final List<Item> items;
+    private final String note;
+
+    public SinkHolder(
+            String name,
+            int count,
+            Long total,
+            boolean active,
+            double ratio,
+            Color color,
+            List<String> tags,
+            List<Item> items,
+            String note) {
+        this.name = name;
+        this.count = count;
+        this.total = total;
+        this.active = active;
+        this.ratio = ratio;
+        this.color = color;
+        this.tags = tags;
+        this.items = items;
+        this.note = note;
+    }
+
+    @JsonProperty("name")
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("count")
+    public int getCount() {
+        return count;
+    }
+
+    @JsonProperty("total")
+    public Long getTotal() {
+        return total;
+    }
+
+    @JsonProperty("active")
+    public boolean isActive() {
+        return active;
+    }
+
+    @JsonProperty("ratio")
+    public double getRatio() {
+        return ratio;
+    }
+
+    @JsonProperty("color")
+    public Color getColor() {
+        return color;
+    }
+
+    @JsonProperty("tags")
+    public List<String> getTags() {
+        return tags;
+    }
+
+    @JsonProperty("items")
+    public List<Item> getItems() {
+        return items;
+    }
+
+    @JsonProperty("note")
+    @JsonInclude(Include.NON_NULL)
+    public String getNote() {
+        return note;
+    }
+
+    public enum Color {
+        RED,
+        @JsonProperty("green")
+        GREEN
+    }
+
+    @JacksonProcessor(utf8Sink = true)
+    public static final class Item {
+
+        private final String id;
+        private final int quantity;
+
+        public Item(String id, int quantity) {
+            this.id = id;
+            this.quantity = quantity;
+        }
+
+        @JsonProperty("id")
+        public String getId() {
+            return id;
+        }
+
+        @JsonProperty("quantity")
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+}
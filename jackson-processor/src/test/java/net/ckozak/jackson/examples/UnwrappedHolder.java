@@ -0,0 +1,99 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor(utf8Sink = true)
+public final class UnwrappedHolder {
+
+    private final String id;
+    private final Address home;
+    private final int count;
+
+    public UnwrappedHolder(String id, Address home, int count) {
+        this.id = id;
+        this.home = home;
+        this.count = count;
+    }
+
+    @JsonProperty("id")
+    public String getId() {
+        return id;
+    }
+
+    @JsonProperty("home")
+    @JsonUnwrapped(prefix = "home.")
+    public Address getHome() {
+        return home;
+    }
+
+    @JsonProperty("count")
+    public int getCount() {
+        return count;
+    }
+
+    @JacksonProcessor(utf8Sink = true)
+    public static final class Address {
+
+        private final String street;
+        private final Postal postal;
+
+        public Address(String street, Postal postal) {
+            this.street = street;
+            this.postal = postal;
+        }
+
+        @JsonProperty("street")
+        public String getStreet() {
+            return street;
+        }
+
+        @JsonProperty("postal")
+        @JsonUnwrapped(suffix = "Code")
+        public Postal getPostal() {
+            return postal;
+        }
+    }
+
+    @JacksonProcessor(utf8Sink = true)
+    public static final class Postal {
+
+        private final String zip;
+        private final String plus4;
+
+        public Postal(String zip, String plus4) {
+            this.zip = zip;
+            this.plus4 = plus4;
+        }
+
+        @JsonProperty("zip")
+        public String getZip() {
+            return zip;
+        }
+
+        @JsonProperty("plus4")
+        @JsonInclude(Include.NON_NULL)
+        public String getPlus4() {
+            return plus4;
+        }
+    }
+}
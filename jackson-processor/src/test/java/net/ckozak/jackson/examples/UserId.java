@@ -0,0 +1,41 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor(utf8Sink = true)
+public final class UserId {
+
+    private final String value;
+
+    private UserId(String value) {
+        this.value = value;
+    }
+
+    @JsonCreator
+    public static UserId of(String value) {
+        return new UserId(value);
+    }
+
+    @JsonValue
+    public String value() {
+        return value;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+public final class ValueHolder {
+
+    private final UserId id;
+    private final String payload;
+
+    public ValueHolder(UserId id, String payload) {
+        this.id = id;
+        this.payload = payload;
+    }
+
+    @JsonProperty("id")
+    public UserId getId() {
+        return id;
+    }
+
+    @JsonProperty("payload")
+    @JsonRawValue
+    public String getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * (c) Copyright 2021 Carter Kozak
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.ckozak.jackson.examples;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
+import net.ckozak.jackson.annotations.JacksonProcessor;
+
+@JacksonProcessor
+public final class ViewHolder {
+
+    private final String id;
+    private final String name;
+    private final String email;
+    private final int version;
+    private final String secret;
+
+    public ViewHolder(String id, String name, String email, int version, String secret) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.version = version;
+        this.secret = secret;
+    }
+
+    @JsonProperty("id")
+    public String getId() {
+        return id;
+    }
+
+    @JsonProperty("name")
+    @JsonView(Public.class)
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("email")
+    @JsonView(Internal.class)
+    public String getEmail() {
+        return email;
+    }
+
+    @JsonProperty("version")
+    @JsonView({Internal.class, Admin.class})
+    public int getVersion() {
+        return version;
+    }
+
+    @JsonProperty("secret")
+    @JsonView({})
+    @JsonInclude(Include.NON_NULL)
+    public String getSecret() {
+        return secret;
+    }
+
+    public interface Public {}
+
+    public interface Internal extends Public {}
+
+    public interface Admin {}
+}
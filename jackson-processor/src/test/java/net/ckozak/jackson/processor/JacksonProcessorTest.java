@@ -21,6 +21,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.ByteSource;
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.Compiler;
@@ -32,47 +33,300 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import javax.annotation.processing.Processor;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardLocation;
+import net.ckozak.jackson.examples.AnyHolder;
+import net.ckozak.jackson.examples.ArrayHolder;
+import net.ckozak.jackson.examples.Built;
+import net.ckozak.jackson.examples.CollectionHolder;
+import net.ckozak.jackson.examples.Coordinates;
+import net.ckozak.jackson.examples.CreatorBean;
+import net.ckozak.jackson.examples.EnumHolder;
+import net.ckozak.jackson.examples.FormattedCreator;
+import net.ckozak.jackson.examples.HiddenBuilder;
+import net.ckozak.jackson.examples.Inclusions;
+import net.ckozak.jackson.examples.MapHolder;
+import net.ckozak.jackson.examples.MutableBean;
+import net.ckozak.jackson.examples.NestedHolder;
+import net.ckozak.jackson.examples.NonDefaultBean;
+import net.ckozak.jackson.examples.NullnessHolder;
+import net.ckozak.jackson.examples.Parameterized;
+import net.ckozak.jackson.examples.RawFieldNames;
+import net.ckozak.jackson.examples.Shape;
+import net.ckozak.jackson.examples.ShapeHolder;
 import net.ckozak.jackson.examples.Simple;
+import net.ckozak.jackson.examples.SinkHolder;
+import net.ckozak.jackson.examples.UnwrappedHolder;
+import net.ckozak.jackson.examples.UserId;
+import net.ckozak.jackson.examples.ValueHolder;
+import net.ckozak.jackson.examples.ViewHolder;
+import org.immutables.processor.ProxyProcessor;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
 
 public final class JacksonProcessorTest {
 
     private static final boolean DEV_MODE = Boolean.getBoolean("recreate");
     private static final Path TEST_CLASSES_BASE_DIR = Paths.get("src", "test", "java");
     private static final Path RESOURCES_BASE_DIR = Paths.get("src", "test", "resources");
+    // Records require java 16, so record examples are not compiled along with the tests
+    private static final Path RECORDS_BASE_DIR = Paths.get("src", "test", "records");
+    private static final String EXAMPLES_PACKAGE = "net.ckozak.jackson.examples";
 
     @Test
     public void testExampleFileCompiles() {
-        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, Simple.class);
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, Simple.class, "_GeneratedSerializer");
     }
 
-    private static void assertTestFileCompileAndMatches(Path basePath, Class<?> clazz) {
-        Compilation compilation = compileTestClass(basePath, clazz);
+    @Test
+    public void testRawFieldNamesSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, RawFieldNames.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testCollectionSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, CollectionHolder.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testArraySerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, ArrayHolder.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testMapSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, MapHolder.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testInclusionSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, Inclusions.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testNonDefaultInclusionSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, NonDefaultBean.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testParameterizedSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, Parameterized.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testDispatchingSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, Shape.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testSubtypeSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, Shape.Circle.class, "_GeneratedSerializer");
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, Shape.Square.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testPolymorphicPropertySerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, ShapeHolder.class, "_GeneratedSerializer", Shape.class);
+    }
+
+    @Test
+    public void testEnumSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, EnumHolder.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testNestedSerializerCompiles() {
+        assertTestFileCompileAndMatches(
+                TEST_CLASSES_BASE_DIR, NestedHolder.class, "_GeneratedSerializer", Simple.class);
+    }
+
+    @Test
+    public void testSinkSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, SinkHolder.class, "_GeneratedSerializer");
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, SinkHolder.Item.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testViewSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, ViewHolder.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testUnwrappedSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, UnwrappedHolder.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testAnyGetterSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, AnyHolder.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testAnySetterDeserializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, AnyHolder.class, "_GeneratedDeserializer");
+    }
+
+    @Test
+    public void testJsonValueSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, UserId.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    public void testRawValueSerializerCompiles() {
+        assertTestFileCompileAndMatches(
+                TEST_CLASSES_BASE_DIR, ValueHolder.class, "_GeneratedSerializer", UserId.class);
+    }
+
+    @Test
+    public void testNullnessSerializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, NullnessHolder.class, "_GeneratedSerializer");
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_16)
+    public void testRecordSerializerCompiles() {
+        assertRecordFileCompileAndMatches("Point", "_GeneratedSerializer");
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_16)
+    public void testRecordDeserializerCompiles() {
+        assertRecordFileCompileAndMatches("Point", "_GeneratedDeserializer");
+    }
+
+    @Test
+    public void testModuleCompiles() throws IOException {
+        Compilation compilation = compileTestClass(
+                TEST_CLASSES_BASE_DIR,
+                Simple.class,
+                "-Ajackson.processor.module=net.ckozak.jackson.examples.ExamplesModule");
         assertThat(compilation).succeededWithoutWarnings();
-        String generatedClassName = clazz.getSimpleName() + "_GeneratedSerializer";
-        String generatedFqnClassName = clazz.getPackage().getName() + "." + generatedClassName;
-        String generatedClassFileRelativePath = generatedFqnClassName.replaceAll("\\.", "/") + ".java";
-        assertThat(compilation.generatedFile(StandardLocation.SOURCE_OUTPUT, generatedClassFileRelativePath))
-                .hasValueSatisfying(
-                        javaFileObject -> assertContentsMatch(javaFileObject, generatedClassFileRelativePath));
+        String modulePath = "net/ckozak/jackson/examples/ExamplesModule.java";
+        assertThat(compilation.generatedFile(StandardLocation.SOURCE_OUTPUT, modulePath))
+                .hasValueSatisfying(javaFileObject -> assertContentsMatch(javaFileObject, modulePath));
+        JavaFileObject services = compilation
+                .generatedFile(StandardLocation.CLASS_OUTPUT, "META-INF/services/com.fasterxml.jackson.databind.Module")
+                .orElseThrow();
+        assertThat(readJavaFileObject(services)).isEqualTo("net.ckozak.jackson.examples.ExamplesModule\n");
+    }
+
+    @Test
+    public void testExampleDeserializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, Simple.class, "_GeneratedDeserializer");
+    }
+
+    @Test
+    public void testCreatorWithSettersDeserializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, CreatorBean.class, "_GeneratedDeserializer");
     }
 
-    private static Compilation compileTestClass(Path basePath, Class<?> clazz) {
-        Path clazzPath = basePath.resolve(Paths.get(
-                Joiner.on("/").join(Splitter.on(".").split(clazz.getPackage().getName())),
-                clazz.getSimpleName() + ".java"));
+    @Test
+    public void testPropertyDeserializationAnnotationsSkipDeserializer() {
+        Compilation compilation = compileTestClass(TEST_CLASSES_BASE_DIR, FormattedCreator.class);
+        assertThat(compilation).succeededWithoutWarnings();
+        assertThat(compilation.generatedFile(
+                        StandardLocation.SOURCE_OUTPUT,
+                        "net/ckozak/jackson/examples/FormattedCreator_GeneratedDeserializer.java"))
+                .isEmpty();
+    }
+
+    @Test
+    public void testMutableBeanDeserializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, MutableBean.class, "_GeneratedDeserializer");
+    }
+
+    @Test
+    public void testBuilderDeserializerCompiles() {
+        assertTestFileCompileAndMatches(TEST_CLASSES_BASE_DIR, Built.class, "_GeneratedDeserializer");
+    }
+
+    @Test
+    public void testImmutablesBuilderDeserializerCompiles() {
+        // The Immutables builder is generated in the same round, so the declared builder type cannot be resolved
+        Compilation compilation = compileTestClasses(
+                TEST_CLASSES_BASE_DIR,
+                ImmutableList.of(Coordinates.class),
+                ImmutableList.of(new JacksonAnnotationProcessor(), new ProxyProcessor()));
+        assertGeneratedFileMatches(compilation, EXAMPLES_PACKAGE, "Coordinates_GeneratedDeserializer");
+    }
+
+    @Test
+    public void testBuilderWithoutConstructorFails() {
+        Compilation compilation = compileTestClass(TEST_CLASSES_BASE_DIR, HiddenBuilder.class);
+        assertThat(compilation).hadErrorContaining("Builder must have an accessible no-argument constructor");
+    }
+
+    /**
+     * Compiles the source file declaring {@code clazz} along with the {@code dependencies}, which are required when
+     * the generated class references classes generated for them.
+     */
+    private static void assertTestFileCompileAndMatches(
+            Path basePath, Class<?> clazz, String generatedSuffix, Class<?>... dependencies) {
+        Compilation compilation = compileTestClasses(
+                basePath, ImmutableList.<Class<?>>builder().add(clazz).add(dependencies).build());
+        assertGeneratedFileMatches(compilation, clazz.getPackage().getName(), clazz.getSimpleName() + generatedSuffix);
+    }
+
+    /** Record examples are compiled from source using the language level of the running jdk. */
+    private static void assertRecordFileCompileAndMatches(String simpleName, String generatedSuffix) {
+        Path recordPath = RECORDS_BASE_DIR.resolve(Paths.get(
+                Joiner.on("/").join(Splitter.on(".").split(EXAMPLES_PACKAGE)), simpleName + ".java"));
         try {
-            return Compiler.javac()
-                    .withOptions("-source", "1.8", "-Werror", "-Xlint:deprecation", "-Xlint:unchecked")
+            Compilation compilation = Compiler.javac()
+                    .withOptions("-Werror", "-Xlint:deprecation", "-Xlint:unchecked")
                     .withProcessors(new JacksonAnnotationProcessor())
-                    .compile(JavaFileObjects.forResource(clazzPath.toUri().toURL()));
+                    .compile(JavaFileObjects.forResource(recordPath.toUri().toURL()));
+            assertGeneratedFileMatches(compilation, EXAMPLES_PACKAGE, simpleName + generatedSuffix);
         } catch (MalformedURLException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private static void assertGeneratedFileMatches(
+            Compilation compilation, String packageName, String generatedClassName) {
+        assertThat(compilation).succeededWithoutWarnings();
+        String generatedFqnClassName = packageName + "." + generatedClassName;
+        String generatedClassFileRelativePath = generatedFqnClassName.replaceAll("\\.", "/") + ".java";
+        assertThat(compilation.generatedFile(StandardLocation.SOURCE_OUTPUT, generatedClassFileRelativePath))
+                .hasValueSatisfying(
+                        javaFileObject -> assertContentsMatch(javaFileObject, generatedClassFileRelativePath));
+    }
+
+    private static Compilation compileTestClass(Path basePath, Class<?> clazz, String... options) {
+        return compileTestClasses(basePath, ImmutableList.of(clazz), options);
+    }
+
+    private static Compilation compileTestClasses(Path basePath, List<Class<?>> classes, String... options) {
+        return compileTestClasses(basePath, classes, ImmutableList.of(new JacksonAnnotationProcessor()), options);
+    }
+
+    private static Compilation compileTestClasses(
+            Path basePath, List<Class<?>> classes, List<Processor> processors, String... options) {
+        ImmutableList.Builder<JavaFileObject> sources = ImmutableList.builder();
+        for (Class<?> clazz : classes) {
+            // Nested classes are declared in the source file of the top level class
+            Class<?> topLevelClass = clazz.getNestHost();
+            Path clazzPath = basePath.resolve(Paths.get(
+                    Joiner.on("/").join(Splitter.on(".").split(topLevelClass.getPackage().getName())),
+                    topLevelClass.getSimpleName() + ".java"));
+            try {
+                sources.add(JavaFileObjects.forResource(clazzPath.toUri().toURL()));
+            } catch (MalformedURLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return Compiler.javac()
+                .withOptions(ImmutableList.builder()
+                        .add("-source", "1.8", "-Werror", "-Xlint:deprecation", "-Xlint:unchecked")
+                        .add((Object[]) options)
+                        .build())
+                .withProcessors(processors)
+                .compile(sources.build());
+    }
+
     private static void assertContentsMatch(JavaFileObject javaFileObject, String generatedClassFile) {
         try {
             Path output = RESOURCES_BASE_DIR.resolve(generatedClassFile + ".generated");